@@ -0,0 +1,28 @@
+package com.uniapp.bench;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the JMH benchmarks with the GC profiler enabled, so every result also
+ * reports the allocation rate and bytes allocated per operation. Arguments
+ * are passed through to JMH; pass {@code -prof} explicitly to choose other
+ * profilers instead.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-prof")) {
+            options.add("-prof");
+            options.add("gc");
+        }
+        Main.main(options.toArray(new String[0]));
+    }
+}
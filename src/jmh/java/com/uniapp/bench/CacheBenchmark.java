@@ -0,0 +1,82 @@
+package com.uniapp.bench;
+
+import com.uniapp.cache.InMemoryUniversitySource;
+import com.uniapp.cache.UniversityCache;
+import com.uniapp.ingest.UniversityJsonParser;
+import com.uniapp.model.University;
+import com.uniapp.search.IndexSnapshot;
+import com.uniapp.search.SearchEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold-start costs: restoring the index snapshot, loading the binary cache and
+ * parsing the JSON dataset.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheBenchmark {
+
+    @Param({"10000", "100000"})
+    public int size;
+
+    private Path directory;
+    private UniversityCache cache;
+    private IndexSnapshot snapshot;
+    private String json;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<University> universities = SyntheticDataset.generate(size, 42);
+        directory = Files.createTempDirectory("uniapp-bench");
+        cache = new UniversityCache(directory.resolve("universities.bin"));
+        cache.refresh(new InMemoryUniversitySource(1, universities));
+        json = SyntheticDataset.toJson(universities);
+        snapshot = new IndexSnapshot(directory.resolve("index.bin"));
+        snapshot.save(new SearchEngine(universities), 1);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(cache.file());
+        snapshot.delete();
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public List<University> cacheLoad() throws IOException {
+        return cache.load();
+    }
+
+    @Benchmark
+    public SearchEngine snapshotRestore() throws IOException {
+        return snapshot.restore(1);
+    }
+
+    @Benchmark
+    public int jsonStream(Blackhole blackhole) throws IOException {
+        return UniversityJsonParser.parse(new StringReader(json), blackhole::consume);
+    }
+}
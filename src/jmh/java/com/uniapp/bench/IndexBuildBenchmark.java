@@ -0,0 +1,82 @@
+package com.uniapp.bench;
+
+import com.uniapp.model.University;
+import com.uniapp.search.InvertedIndex;
+import com.uniapp.search.SearchEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to build the inverted index alone and a complete {@link SearchEngine}
+ * (store, index, fuzzy trigrams and facets). {@link #sequentialInvertedIndex}
+ * adds documents one at a time on the calling thread, as a baseline for the
+ * sharded fork-join build; compare across {@code -jvmArgs -XX:ActiveProcessorCount=N}.
+ * {@link #patchedEngine} replaces a few dozen records of a built engine, as a
+ * dataset update does, for comparison with building it again.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IndexBuildBenchmark {
+
+    @Param({"10000", "100000"})
+    public int size;
+
+    private static final int PATCH_SIZE = 32;
+
+    private List<University> universities;
+    private SearchEngine engine;
+    private Map<Integer, University> changes;
+
+    @Setup
+    public void setUp() {
+        List<University> generated = SyntheticDataset.generate(size + PATCH_SIZE, 42);
+        universities = generated.subList(0, size);
+        engine = new SearchEngine(universities);
+        changes = new HashMap<>();
+        for (int i = 0; i < PATCH_SIZE; i++) {
+            changes.put(i * (size / PATCH_SIZE), generated.get(size + i));
+        }
+    }
+
+    @Benchmark
+    public InvertedIndex invertedIndex() {
+        return InvertedIndex.build(universities);
+    }
+
+    @Benchmark
+    public InvertedIndex sequentialInvertedIndex() {
+        InvertedIndex.Builder builder = new InvertedIndex.Builder();
+        for (University university : universities) {
+            builder.add(university);
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public SearchEngine searchEngine() {
+        return new SearchEngine(universities);
+    }
+
+    @Benchmark
+    public SearchEngine patchedEngine() {
+        return engine.patch(changes, size);
+    }
+}
@@ -0,0 +1,115 @@
+package com.uniapp.bench;
+
+import com.uniapp.model.GeoPoint;
+import com.uniapp.model.University;
+import com.uniapp.search.Facet;
+import com.uniapp.search.FacetSelection;
+import com.uniapp.search.FuzzyMatch;
+import com.uniapp.search.GeoMatch;
+import com.uniapp.search.SearchEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-query latency of the search hot paths. Sample-time mode reports the
+ * latency distribution, including p50/p90/p99/p99.9.
+ * <p>
+ * Each invocation runs the next query of a fixed rotation so that results are
+ * not dominated by one lucky or unlucky query. {@link #prefix} goes to the
+ * index directly; {@link #cachedPrefix} goes through the engine's query cache.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+
+    private static final int QUERY_COUNT = 1024;
+
+    @Param({"10000", "100000"})
+    public int size;
+
+    private SearchEngine engine;
+    private String[] prefixQueries;
+    private String[] misspelledQueries;
+    private FacetSelection[] selections;
+    private GeoPoint[] points;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<University> universities = SyntheticDataset.generate(size, 42);
+        engine = new SearchEngine(universities);
+        prefixQueries = SyntheticDataset.prefixQueries(universities, QUERY_COUNT, 7);
+        misspelledQueries = SyntheticDataset.misspelledQueries(universities, QUERY_COUNT, 11);
+        points = SyntheticDataset.points(QUERY_COUNT, 13);
+        selections = new FacetSelection[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            selections[i] = FacetSelection.NONE.with(Facet.COUNTRY,
+                    Set.of(universities.get((i * 7919) % universities.size()).country()));
+        }
+    }
+
+    private int nextQuery() {
+        next = (next + 1) & (QUERY_COUNT - 1);
+        return next;
+    }
+
+    @Benchmark
+    public int[] prefix() {
+        return engine.index().search(prefixQueries[nextQuery()]);
+    }
+
+    @Benchmark
+    public int[] cachedPrefix() {
+        return engine.hits(prefixQueries[nextQuery()], FacetSelection.NONE);
+    }
+
+    @Benchmark
+    public List<FuzzyMatch> fuzzy() {
+        return engine.fuzzy().match(misspelledQueries[nextQuery()], 20);
+    }
+
+    @Benchmark
+    public int[] faceted() {
+        int i = nextQuery();
+        return engine.facets().filter(engine.index().search(prefixQueries[i]), selections[i]);
+    }
+
+    @Benchmark
+    public Object facetCounts() {
+        return engine.facets().counts(engine.index().search(prefixQueries[nextQuery()]));
+    }
+
+    @Benchmark
+    public int[] ranked() {
+        String query = prefixQueries[nextQuery()];
+        return engine.rank(query, engine.hits(query, FacetSelection.NONE), 100);
+    }
+
+    @Benchmark
+    public List<GeoMatch> nearest() {
+        return engine.nearest("", FacetSelection.NONE, points[nextQuery()], 10);
+    }
+
+    @Benchmark
+    public List<GeoMatch> nearbyInCountry() {
+        int i = nextQuery();
+        return engine.within(prefixQueries[i], selections[i], points[i], 500, 10);
+    }
+}
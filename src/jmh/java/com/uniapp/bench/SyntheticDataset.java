@@ -0,0 +1,198 @@
+package com.uniapp.bench;
+
+import com.uniapp.model.GeoPoint;
+import com.uniapp.model.University;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic university dataset with roughly the shape of the
+ * real one: a few hundred countries of very different sizes, optional
+ * states/provinces, multi-word names built from a small vocabulary, one or
+ * two domains per institution, and a location scattered around the centre of
+ * its country.
+ */
+public final class SyntheticDataset {
+
+    private static final String[] KINDS = {
+        "University", "College", "Institute", "Academy", "School", "Polytechnic", "Conservatory"
+    };
+    private static final String[] QUALIFIERS = {
+        "National", "Technical", "State", "Central", "Catholic", "Medical", "Agricultural", "Open",
+        "International", "Metropolitan", "Pedagogical", "Free", "Royal", "American", "European"
+    };
+    private static final String[] SUBJECTS = {
+        "Technology", "Sciences", "Applied Sciences", "Arts", "Economics", "Engineering", "Management",
+        "Medicine", "Music", "Law", "Business", "Design", "Education", "Architecture", "Nursing"
+    };
+    private static final String[] SYLLABLES = {
+        "ath", "ber", "cal", "dor", "el", "fra", "gan", "hal", "is", "jor", "kap", "lin", "mar", "nor",
+        "os", "pat", "qui", "ros", "sal", "tes", "ur", "val", "wes", "xan", "yor", "zel", "ana", "ton"
+    };
+
+    private SyntheticDataset() {
+    }
+
+    /** Returns {@code size} universities generated from {@code seed}. */
+    public static List<University> generate(int size, long seed) {
+        Random random = new Random(seed);
+        int countryCount = Math.max(10, Math.min(250, size / 40));
+        String[] countries = new String[countryCount];
+        String[] codes = new String[countryCount];
+        String[][] states = new String[countryCount][];
+        for (int c = 0; c < countryCount; c++) {
+            countries[c] = capitalize(word(random, 2 + random.nextInt(2))) + "ia";
+            codes[c] = "" + (char) ('A' + c / 26 % 26) + (char) ('A' + c % 26);
+            states[c] = new String[random.nextInt(3) == 0 ? 0 : 3 + random.nextInt(30)];
+            for (int s = 0; s < states[c].length; s++) {
+                states[c][s] = capitalize(word(random, 2 + random.nextInt(2)));
+            }
+        }
+        // Separate generator, so names and countries do not depend on the coordinates.
+        Random places = new Random(~seed);
+        double[][] centres = new double[countryCount][];
+        for (int c = 0; c < countryCount; c++) {
+            centres[c] = new double[] {places.nextDouble() * 120 - 60, places.nextDouble() * 340 - 170};
+        }
+        List<University> universities = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // Skew towards a few large countries, as in the real dataset.
+            int c = (int) (countryCount * Math.pow(random.nextDouble(), 2.5));
+            String city = capitalize(word(random, 2 + random.nextInt(3)));
+            String name = name(random, city);
+            String domain = slug(city) + i + "." + codes[c].toLowerCase(Locale.ROOT);
+            List<String> domains = random.nextInt(5) == 0 ? List.of(domain, "alt." + domain) : List.of(domain);
+            String state = states[c].length == 0 ? null : states[c][random.nextInt(states[c].length)];
+            GeoPoint location = new GeoPoint(clamp(centres[c][0] + places.nextGaussian() * 3, 90),
+                    clamp(centres[c][1] + places.nextGaussian() * 3, 180));
+            universities.add(new University(name, countries[c], codes[c], state, domains,
+                    List.of("https://www." + domain + "/"), location));
+        }
+        return universities;
+    }
+
+    /**
+     * Returns {@code count} queries as a user would type them: the first one to
+     * three words of a random name, the last word cut to a prefix.
+     */
+    public static String[] prefixQueries(List<University> universities, int count, long seed) {
+        Random random = new Random(seed);
+        String[] queries = new String[count];
+        for (int i = 0; i < count; i++) {
+            String[] words = universities.get(random.nextInt(universities.size())).name().split(" ");
+            int n = 1 + random.nextInt(Math.min(3, words.length));
+            StringBuilder query = new StringBuilder();
+            for (int w = 0; w < n - 1; w++) {
+                query.append(words[w]).append(' ');
+            }
+            String last = words[n - 1];
+            query.append(last, 0, 1 + random.nextInt(last.length()));
+            queries[i] = query.toString();
+        }
+        return queries;
+    }
+
+    /** Returns {@code count} random points in the area covered by the dataset's locations. */
+    public static GeoPoint[] points(int count, long seed) {
+        Random random = new Random(seed);
+        GeoPoint[] points = new GeoPoint[count];
+        for (int i = 0; i < count; i++) {
+            points[i] = new GeoPoint(random.nextDouble() * 120 - 60, random.nextDouble() * 340 - 170);
+        }
+        return points;
+    }
+
+    /** Returns {@code count} complete names with one or two random typos each. */
+    public static String[] misspelledQueries(List<University> universities, int count, long seed) {
+        Random random = new Random(seed);
+        String[] queries = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder name = new StringBuilder(universities.get(random.nextInt(universities.size())).name());
+            int typos = 1 + random.nextInt(2);
+            for (int t = 0; t < typos; t++) {
+                int at = 1 + random.nextInt(name.length() - 2);
+                if (name.charAt(at) == ' ' || name.charAt(at + 1) == ' ') {
+                    continue;
+                }
+                switch (random.nextInt(3)) {
+                    case 0 -> name.deleteCharAt(at);
+                    case 1 -> name.insert(at, (char) ('a' + random.nextInt(26)));
+                    default -> {
+                        char c = name.charAt(at);
+                        name.setCharAt(at, name.charAt(at + 1));
+                        name.setCharAt(at + 1, c);
+                    }
+                }
+            }
+            queries[i] = name.toString();
+        }
+        return queries;
+    }
+
+    /** Encodes {@code universities} in the format of the published dataset. */
+    public static String toJson(List<University> universities) {
+        StringBuilder json = new StringBuilder(universities.size() * 200).append('[');
+        for (int i = 0; i < universities.size(); i++) {
+            University u = universities.get(i);
+            if (i > 0) {
+                json.append(",\n");
+            }
+            json.append("{\"name\": ").append(quote(u.name()))
+                    .append(", \"country\": ").append(quote(u.country()))
+                    .append(", \"alpha_two_code\": ").append(quote(u.alphaTwoCode()))
+                    .append(", \"state-province\": ").append(quote(u.stateProvince()))
+                    .append(", \"domains\": ").append(quoteAll(u.domains()))
+                    .append(", \"web_pages\": ").append(quoteAll(u.webPages()))
+                    .append(", \"latitude\": ").append(u.location().latitude())
+                    .append(", \"longitude\": ").append(u.location().longitude())
+                    .append('}');
+        }
+        return json.append(']').toString();
+    }
+
+    private static String name(Random random, String city) {
+        String kind = KINDS[random.nextInt(KINDS.length)];
+        return switch (random.nextInt(4)) {
+            case 0 -> kind + " of " + city;
+            case 1 -> QUALIFIERS[random.nextInt(QUALIFIERS.length)] + " " + kind + " of " + city;
+            case 2 -> city + " " + kind + " of " + SUBJECTS[random.nextInt(SUBJECTS.length)];
+            default -> QUALIFIERS[random.nextInt(QUALIFIERS.length)] + " " + kind + " of "
+                    + SUBJECTS[random.nextInt(SUBJECTS.length)] + " " + city;
+        };
+    }
+
+    private static double clamp(double degrees, double limit) {
+        return Math.max(-limit, Math.min(limit, degrees));
+    }
+
+    private static String word(Random random, int syllables) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < syllables; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return word.toString();
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static String slug(String word) {
+        return word.toLowerCase(Locale.ROOT);
+    }
+
+    private static String quote(String value) {
+        return value == null ? "null" : '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    private static String quoteAll(List<String> values) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < values.size(); i++) {
+            json.append(i > 0 ? ", " : "").append(quote(values.get(i)));
+        }
+        return json.append(']').toString();
+    }
+}
@@ -0,0 +1,25 @@
+package com.uniapp.cache;
+
+import com.uniapp.model.University;
+
+import java.util.List;
+
+/**
+ * The records a {@link UniversityCache#refresh} changed, for keeping other
+ * copies of the dataset, such as a live search engine, in step with the cache.
+ * Records are identified across versions by name and country, see
+ * {@link UniversityCache#key}.
+ *
+ * @param version  the dataset version the cache now holds
+ * @param inserted records that were not cached before
+ * @param updated  the new contents of cached records that changed
+ * @param deleted  the previous contents of cached records that were removed
+ */
+public record DatasetDelta(long version, List<University> inserted, List<University> updated,
+                           List<University> deleted) {
+
+    /** Returns the number of changed records. */
+    public int size() {
+        return inserted.size() + updated.size() + deleted.size();
+    }
+}
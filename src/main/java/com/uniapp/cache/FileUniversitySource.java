@@ -0,0 +1,44 @@
+package com.uniapp.cache;
+
+import com.uniapp.ingest.UniversityJsonParser;
+import com.uniapp.model.University;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads the dataset from a local JSON file. The file's modification time is
+ * used as its version.
+ */
+public final class FileUniversitySource implements UniversitySource {
+
+    private final Path file;
+
+    public FileUniversitySource(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public long version() throws IOException {
+        return Files.getLastModifiedTime(file).toMillis();
+    }
+
+    @Override
+    public List<University> fetch() throws IOException {
+        List<University> universities = new ArrayList<>();
+        stream(universities::add);
+        return universities;
+    }
+
+    @Override
+    public void stream(Consumer<University> sink) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file)) {
+            UniversityJsonParser.parse(reader, sink);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.uniapp.cache;
+
+import com.uniapp.model.University;
+
+import java.util.List;
+
+/**
+ * Stub source serving a dataset held in memory, for offline runs and demos.
+ * {@link #publish} swaps in a new dataset version as a remote server would.
+ */
+public final class InMemoryUniversitySource implements UniversitySource {
+
+    private volatile long version;
+    private volatile List<University> universities;
+
+    public InMemoryUniversitySource(long version, List<University> universities) {
+        publish(version, universities);
+    }
+
+    /** Replaces the served dataset. */
+    public void publish(long version, List<University> universities) {
+        this.universities = List.copyOf(universities);
+        this.version = version;
+    }
+
+    @Override
+    public long version() {
+        return version;
+    }
+
+    @Override
+    public List<University> fetch() {
+        return universities;
+    }
+}
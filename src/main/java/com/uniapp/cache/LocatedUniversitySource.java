@@ -0,0 +1,82 @@
+package com.uniapp.cache;
+
+import com.uniapp.ingest.UniversityJsonParser;
+import com.uniapp.model.GeoPoint;
+import com.uniapp.model.University;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Adds coordinates from a local file to the records of another source. The
+ * published dataset has no locations, so they are kept separately, in the
+ * dataset's own JSON format with only the name, country and location of each
+ * university:
+ * <pre>
+ * [{"name": "National and Kapodistrian University of Athens", "country": "Greece",
+ *   "latitude": 37.9681, "longitude": 23.7794}, ...]
+ * </pre>
+ * Records are matched by name and country; a location already present in the
+ * source record wins. A missing file adds nothing. The version changes when
+ * either the source or the file does, so editing the file refreshes the cache.
+ */
+public final class LocatedUniversitySource implements UniversitySource {
+
+    private final UniversitySource source;
+    private final Path locations;
+
+    public LocatedUniversitySource(UniversitySource source, Path locations) {
+        this.source = source;
+        this.locations = locations;
+    }
+
+    @Override
+    public long version() throws IOException {
+        long version = source.version();
+        return Files.isRegularFile(locations)
+                ? 31 * version + Files.getLastModifiedTime(locations).toMillis()
+                : version;
+    }
+
+    @Override
+    public List<University> fetch() throws IOException {
+        List<University> universities = new ArrayList<>();
+        stream(universities::add);
+        return universities;
+    }
+
+    @Override
+    public void stream(Consumer<University> sink) throws IOException {
+        Map<String, GeoPoint> points = readLocations();
+        if (points.isEmpty()) {
+            source.stream(sink);
+            return;
+        }
+        source.stream(university -> {
+            GeoPoint point = university.location() == null ? points.get(UniversityCache.key(university)) : null;
+            sink.accept(point == null ? university : university.withLocation(point));
+        });
+    }
+
+    private Map<String, GeoPoint> readLocations() throws IOException {
+        Map<String, GeoPoint> points = new HashMap<>();
+        if (!Files.isRegularFile(locations)) {
+            return points;
+        }
+        try (Reader reader = Files.newBufferedReader(locations)) {
+            UniversityJsonParser.parse(reader, university -> {
+                if (university.location() != null) {
+                    points.put(UniversityCache.key(university), university.location());
+                }
+            });
+        }
+        return points;
+    }
+}
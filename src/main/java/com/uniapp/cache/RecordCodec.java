@@ -0,0 +1,154 @@
+package com.uniapp.cache;
+
+import com.uniapp.model.GeoPoint;
+import com.uniapp.model.University;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary encoding of a {@link University}: every string is a varint
+ * length (shifted by one so that zero encodes {@code null}) followed by UTF-8
+ * bytes, and every list is a varint count followed by its strings. The
+ * location is a zero byte if absent, otherwise a one byte followed by the
+ * latitude and longitude as IEEE 754 doubles.
+ */
+final class RecordCodec {
+
+    private RecordCodec() {
+    }
+
+    static void write(University university, ByteArrayOutputStream out) {
+        writeString(university.name(), out);
+        writeString(university.country(), out);
+        writeString(university.alphaTwoCode(), out);
+        writeString(university.stateProvince(), out);
+        writeStrings(university.domains(), out);
+        writeStrings(university.webPages(), out);
+        writeLocation(university.location(), out);
+    }
+
+    static University read(ByteBuffer in) throws IOException {
+        String name = readString(in);
+        String country = readString(in);
+        String alphaTwoCode = readString(in);
+        String stateProvince = readString(in);
+        List<String> domains = readStrings(in);
+        List<String> webPages = readStrings(in);
+        GeoPoint location = readLocation(in);
+        if (name == null || country == null) {
+            throw new IOException("Corrupt university record at offset " + in.position());
+        }
+        return new University(name, country, alphaTwoCode, stateProvince, domains, webPages, location);
+    }
+
+    private static void writeLocation(GeoPoint location, ByteArrayOutputStream out) {
+        if (location == null) {
+            out.write(0);
+            return;
+        }
+        out.write(1);
+        writeLong(Double.doubleToLongBits(location.latitude()), out);
+        writeLong(Double.doubleToLongBits(location.longitude()), out);
+    }
+
+    private static GeoPoint readLocation(ByteBuffer in) throws IOException {
+        if (!in.hasRemaining()) {
+            throw new IOException("Truncated location at offset " + in.position());
+        }
+        byte present = in.get();
+        if (present == 0) {
+            return null;
+        }
+        if (present != 1 || in.remaining() < 16) {
+            throw new IOException("Corrupt location at offset " + (in.position() - 1));
+        }
+        try {
+            return new GeoPoint(in.getDouble(), in.getDouble());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt location at offset " + in.position(), e);
+        }
+    }
+
+    private static void writeLong(long value, ByteArrayOutputStream out) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+
+    static void writeString(String value, ByteArrayOutputStream out) {
+        if (value == null) {
+            writeVarint(0, out);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length + 1, out);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    static String readString(ByteBuffer in) throws IOException {
+        int offset = in.position();
+        int length = readVarint(in) - 1;
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0 || length > in.remaining()) {
+            throw new IOException("Corrupt string length " + length + " at offset " + offset);
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeStrings(List<String> values, ByteArrayOutputStream out) {
+        writeVarint(values.size(), out);
+        for (String value : values) {
+            writeString(value, out);
+        }
+    }
+
+    private static List<String> readStrings(ByteBuffer in) throws IOException {
+        int offset = in.position();
+        int count = readVarint(in);
+        // Every string takes at least one byte, so a larger count can only come from a corrupt file.
+        if (count < 0 || count > in.remaining()) {
+            throw new IOException("Corrupt string count " + count + " at offset " + offset);
+        }
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String value = readString(in);
+            if (value == null) {
+                throw new IOException("Corrupt null list entry at offset " + offset);
+            }
+            values.add(value);
+        }
+        return values;
+    }
+
+    static void writeVarint(int value, ByteArrayOutputStream out) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    static int readVarint(ByteBuffer in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (!in.hasRemaining()) {
+                throw new IOException("Truncated varint at offset " + in.position());
+            }
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint at offset " + in.position());
+    }
+}
@@ -0,0 +1,25 @@
+package com.uniapp.cache;
+
+/**
+ * Outcome of {@link UniversityCache#refresh}.
+ *
+ * @param version    the dataset version now stored in the cache
+ * @param inserted   records that were not cached before
+ * @param updated    cached records whose contents changed
+ * @param deleted    cached records no longer present in the source
+ * @param rewritten  whether the whole file was rewritten instead of appended to
+ * @param duplicates source records dropped because an earlier record has the
+ *                   same name and country
+ */
+public record RefreshResult(long version, int inserted, int updated, int deleted, boolean rewritten,
+                            int duplicates) {
+
+    static RefreshResult unchanged(long version) {
+        return new RefreshResult(version, 0, 0, 0, false, 0);
+    }
+
+    /** Returns whether any record changed. */
+    public boolean changed() {
+        return inserted + updated + deleted > 0;
+    }
+}
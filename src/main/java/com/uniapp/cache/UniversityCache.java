@@ -0,0 +1,403 @@
+package com.uniapp.cache;
+
+import com.uniapp.model.University;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Local binary copy of the university dataset.
+ * <p>
+ * The file is a fixed header followed by a log of entries, each either a
+ * {@code PUT} of an encoded record or a {@code DELETE} of a record key. Loading
+ * memory-maps the file and replays the log, so a cold start never re-parses
+ * JSON. A refresh appends entries only for records that changed and then
+ * commits them by rewriting the header; the file is compacted once stale
+ * entries outnumber live ones. A {@link Writer} builds a new file from records
+ * as they arrive, without collecting the dataset first.
+ * <p>
+ * Records are identified by name and country ({@link #key}). When a source
+ * lists several records with the same key, only the first is kept and the
+ * others are counted as {@linkplain RefreshResult#duplicates duplicates}.
+ * <pre>
+ * int magic | int format | long version | long committedEnd | int liveCount | int entryCount
+ * </pre>
+ */
+public final class UniversityCache {
+
+    static final int MAGIC = 0x554E4943; // "UNIC"
+    static final int FORMAT = 2;
+    static final int HEADER_SIZE = 32;
+
+    private static final int FLUSH_SIZE = 64 * 1024;
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+
+    private final Path file;
+
+    public UniversityCache(Path file) {
+        this.file = file;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public boolean exists() {
+        return Files.isRegularFile(file);
+    }
+
+    /**
+     * Returns the dataset version stored in the cache, or {@code -1} if there is
+     * no cache or it was written in an older format and must be rebuilt.
+     */
+    public long version() throws IOException {
+        if (!exists()) {
+            return -1;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return olderFormat(channel) ? -1 : readHeader(channel).version;
+        }
+    }
+
+    /** Loads the cached dataset, refreshing from {@code source} first if there is no usable cache yet. */
+    public List<University> open(UniversitySource source) throws IOException {
+        if (version() < 0) {
+            refresh(source);
+        }
+        return load();
+    }
+
+    /** Reads every cached record through a read-only memory mapping of the file. */
+    public List<University> load() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header header = readHeader(channel);
+            return new ArrayList<>(replay(channel, header).values());
+        }
+    }
+
+    /**
+     * Brings the cache up to date with {@code source}. Nothing is fetched when
+     * the source version matches the cached one; otherwise the source is
+     * streamed against the cached records and only inserted, updated and
+     * deleted records are written. Memory holds the cached records, the keys
+     * seen in the source and the changes, never the whole fetched dataset.
+     */
+    public RefreshResult refresh(UniversitySource source) throws IOException {
+        return refresh(source, delta -> {
+        });
+    }
+
+    /**
+     * Refreshes like {@link #refresh(UniversitySource)} and passes the changed
+     * records to {@code changes} once they are committed. {@code changes} is
+     * not called when nothing changed, nor when there was no usable cache to
+     * compare with; the result then reports the whole file as rewritten.
+     */
+    public RefreshResult refresh(UniversitySource source, Consumer<DatasetDelta> changes) throws IOException {
+        long sourceVersion = source.version();
+        if (version() < 0) {
+            return rewrite(source, sourceVersion);
+        }
+        Map<String, University> current;
+        Header header;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            header = readHeader(channel);
+            if (header.version == sourceVersion) {
+                return RefreshResult.unchanged(sourceVersion);
+            }
+            try {
+                current = replay(channel, header);
+            } catch (IOException e) {
+                // A damaged log only costs a rewrite from the source.
+                current = null;
+            }
+        }
+        if (current == null) {
+            return rewrite(source, sourceVersion);
+        }
+
+        Diff diff = new Diff(current);
+        try {
+            source.stream(diff);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        for (String key : current.keySet()) {
+            diff.delta.write(DELETE);
+            RecordCodec.writeString(key, diff.delta);
+        }
+        List<University> deleted = new ArrayList<>(current.values());
+        DatasetDelta changed = new DatasetDelta(sourceVersion, diff.inserted, diff.updated, deleted);
+
+        int live = diff.keys.size();
+        int entryCount = header.entryCount + changed.size();
+        append(header, diff.delta.toByteArray(), new Header(sourceVersion,
+                header.committedEnd + diff.delta.size(), live, entryCount));
+        boolean rewritten = entryCount > 2 * live + 64;
+        if (rewritten) {
+            compact(sourceVersion);
+        }
+        if (changed.size() > 0) {
+            changes.accept(changed);
+        }
+        return new RefreshResult(sourceVersion, diff.inserted.size(), diff.updated.size(), deleted.size(),
+                rewritten, diff.duplicates);
+    }
+
+    /**
+     * Starts replacing the cache with a dataset of the given version. Records
+     * are written to a temporary file as they are accepted and the cache is only
+     * replaced when the writer is {@linkplain Writer#commit committed}.
+     */
+    public Writer writer(long version) throws IOException {
+        return new Writer(version);
+    }
+
+    /** Returns the key identifying a record across dataset versions. */
+    public static String key(University university) {
+        return university.name() + '\u001F' + university.country();
+    }
+
+    private static Map<String, University> replay(FileChannel channel, Header header) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, header.committedEnd);
+        buffer.position(HEADER_SIZE);
+        Map<String, University> records = new LinkedHashMap<>(header.liveCount * 4 / 3 + 1);
+        while (buffer.hasRemaining()) {
+            byte op = buffer.get();
+            if (op == PUT) {
+                University university = RecordCodec.read(buffer);
+                records.put(key(university), university);
+            } else if (op == DELETE) {
+                records.remove(RecordCodec.readString(buffer));
+            } else {
+                throw new IOException("Corrupt cache entry " + op + " at offset " + (buffer.position() - 1));
+            }
+        }
+        return records;
+    }
+
+    private void append(Header previous, byte[] delta, Header next) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            // Drop anything a crashed refresh may have left past the committed end.
+            channel.truncate(previous.committedEnd);
+            writeFully(channel, ByteBuffer.wrap(delta), previous.committedEnd);
+            channel.force(false);
+            writeFully(channel, next.encode(), 0);
+            channel.force(true);
+        }
+    }
+
+    /** Replaces the cache with the dataset of {@code source}, streamed into a {@link Writer}. */
+    private RefreshResult rewrite(UniversitySource source, long version) throws IOException {
+        try (Writer writer = new Writer(version)) {
+            source.stream(writer);
+            writer.commit();
+            return new RefreshResult(version, writer.count(), 0, 0, true, writer.duplicates());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** Rewrites the committed log with only the live records. */
+    private void compact(long version) throws IOException {
+        Map<String, University> records;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            records = replay(channel, readHeader(channel));
+        }
+        try (Writer writer = new Writer(version)) {
+            records.values().forEach(writer);
+            writer.commit();
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /** Returns whether the file is a cache written in another format; anything else is left to {@link #readHeader}. */
+    private static boolean olderFormat(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+            // Read until full or end of file.
+        }
+        buffer.flip();
+        return buffer.remaining() == 8 && buffer.getInt() == MAGIC && buffer.getInt() != FORMAT;
+    }
+
+    private Header readHeader(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) {
+                throw new IOException("Truncated cache header in " + file);
+            }
+        }
+        buffer.flip();
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+            throw new IOException("Not a university cache file: " + file);
+        }
+        Header header = new Header(buffer.getLong(), buffer.getLong(), buffer.getInt(), buffer.getInt());
+        if (header.committedEnd < HEADER_SIZE || header.committedEnd > channel.size()) {
+            throw new IOException("Corrupt cache header in " + file);
+        }
+        return header;
+    }
+
+    /**
+     * Streams records into a replacement cache file. A record whose key was
+     * already written is skipped. Closing a writer that was not committed
+     * discards everything written through it.
+     */
+    public final class Writer implements Consumer<University>, Closeable {
+
+        private final long version;
+        private final Path temp;
+        private final FileChannel channel;
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream(FLUSH_SIZE + 1024);
+        private long end = HEADER_SIZE;
+        private final Set<String> keys = new HashSet<>();
+        private int duplicates;
+        private boolean committed;
+
+        private Writer(long version) throws IOException {
+            this.version = version;
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            this.temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            this.channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+        }
+
+        /** Appends {@code university} to the replacement file unless it is a duplicate. */
+        @Override
+        public void accept(University university) {
+            add(university);
+        }
+
+        /**
+         * Appends {@code university} to the replacement file and returns
+         * {@code true}, or returns {@code false} if a record with the same key
+         * was already written.
+         */
+        public boolean add(University university) {
+            if (!keys.add(key(university))) {
+                duplicates++;
+                return false;
+            }
+            pending.write(PUT);
+            RecordCodec.write(university, pending);
+            if (pending.size() >= FLUSH_SIZE) {
+                try {
+                    flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return true;
+        }
+
+        /** Returns the number of records written so far. */
+        public int count() {
+            return keys.size();
+        }
+
+        /** Returns the number of records skipped because their key was already written. */
+        public int duplicates() {
+            return duplicates;
+        }
+
+        /** Writes the header and atomically replaces the cache with the new file. */
+        public void commit() throws IOException {
+            flush();
+            writeFully(channel, new Header(version, end, keys.size(), keys.size()).encode(), 0);
+            channel.force(true);
+            channel.close();
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        private void flush() throws IOException {
+            writeFully(channel, ByteBuffer.wrap(pending.toByteArray()), end);
+            end += pending.size();
+            pending.reset();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                channel.close();
+            } finally {
+                if (!committed) {
+                    Files.deleteIfExists(temp);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compares streamed source records with the cached ones, removing every
+     * record it sees from {@code current} so that only deleted ones remain, and
+     * encodes the inserted and updated records as {@code PUT} entries.
+     */
+    private static final class Diff implements Consumer<University> {
+
+        private final Map<String, University> current;
+        private final Set<String> keys = new HashSet<>();
+        private final ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        private final List<University> inserted = new ArrayList<>();
+        private final List<University> updated = new ArrayList<>();
+        private int duplicates;
+
+        Diff(Map<String, University> current) {
+            this.current = current;
+        }
+
+        @Override
+        public void accept(University university) {
+            String key = key(university);
+            if (!keys.add(key)) {
+                duplicates++;
+                return;
+            }
+            University previous = current.remove(key);
+            if (previous == null) {
+                inserted.add(university);
+            } else if (!previous.equals(university)) {
+                updated.add(university);
+            } else {
+                return;
+            }
+            delta.write(PUT);
+            RecordCodec.write(university, delta);
+        }
+    }
+
+    private record Header(long version, long committedEnd, int liveCount, int entryCount) {
+
+        ByteBuffer encode() {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+            buffer.putInt(MAGIC).putInt(FORMAT).putLong(version).putLong(committedEnd)
+                    .putInt(liveCount).putInt(entryCount);
+            return buffer.flip();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.uniapp.cache;
+
+import com.uniapp.model.University;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Origin of the university dataset that {@link UniversityCache} refreshes from,
+ * e.g. a local JSON file or an in-memory stub for offline use.
+ */
+public interface UniversitySource {
+
+    /**
+     * Returns an opaque version of the dataset. The cache skips fetching when
+     * the version equals the one it last stored.
+     */
+    long version() throws IOException;
+
+    /** Returns the complete dataset. */
+    List<University> fetch() throws IOException;
+
+    /**
+     * Passes every record of the dataset to {@code sink} in order. Sources that
+     * can read incrementally override this so the dataset is never held in
+     * memory as a whole.
+     */
+    default void stream(Consumer<University> sink) throws IOException {
+        fetch().forEach(sink);
+    }
+}
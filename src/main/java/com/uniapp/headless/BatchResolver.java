@@ -0,0 +1,242 @@
+package com.uniapp.headless;
+
+import com.uniapp.model.University;
+import com.uniapp.search.NameResolver;
+import com.uniapp.search.Resolution;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Matches a CSV file of free-text institution names against the dataset,
+ * writing each input row followed by its best match and a confidence score.
+ * <pre>
+ * java -cp uniapp.jar com.uniapp.headless.BatchResolver --data world_universities.json [options] &lt; in.csv &gt; out.csv
+ *
+ *   --cache-dir DIR   where the binary cache and index snapshot are kept (default ~/.uniapp)
+ *   --column NAME     header of the column holding the names (default: the first column)
+ *   --index N         zero-based index of that column, for input without a header row;
+ *                     not allowed with --column
+ *   --threads N       resolver threads (default: available processors)
+ *   --in FILE         read FILE instead of standard input
+ *   --out FILE        write FILE instead of standard output
+ * </pre>
+ * Rows are read on the calling thread and resolved in chunks of
+ * {@link #CHUNK_SIZE} on a pool of threads sharing one {@link NameResolver},
+ * while at most two chunks per thread are in flight; results are written in
+ * input order. Appended columns are {@code match_name}, {@code match_country},
+ * {@code match_domain}, {@code confidence} and {@code match_kind}.
+ */
+public final class BatchResolver implements AutoCloseable {
+
+    static final int CHUNK_SIZE = 512;
+    static final String[] MATCH_COLUMNS = {"match_name", "match_country", "match_domain", "confidence", "match_kind"};
+
+    private final NameResolver resolver;
+    private final int threads;
+    private final ExecutorService pool;
+
+    public BatchResolver(NameResolver resolver, int threads) {
+        this.resolver = resolver;
+        this.threads = threads;
+        this.pool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "uniapp-resolver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Resolves every row of {@code in} and writes the augmented rows to
+     * {@code out}. With {@code header}, the first row names the columns, the
+     * names are taken from the column titled {@code column} (or the first
+     * column if {@code column} is {@code null}) and the header is extended with
+     * the match columns; without it the names come from column {@code index}.
+     * Neither stream is closed.
+     */
+    public BatchStats resolve(Reader in, Writer out, boolean header, String column, int index) throws IOException {
+        long start = System.nanoTime();
+        Csv csv = new Csv(in);
+        BufferedWriter writer = new BufferedWriter(out, 1 << 16);
+        if (header) {
+            String[] titles = csv.read();
+            if (titles == null) {
+                writer.flush();
+                return new BatchStats(0, 0, System.nanoTime() - start);
+            }
+            index = column == null ? 0 : columnIndex(titles, column);
+            StringBuilder line = new StringBuilder();
+            appendRow(titles, MATCH_COLUMNS, line);
+            writer.append(line).append('\n');
+        }
+        int nameColumn = index;
+        ArrayDeque<Future<Chunk>> inFlight = new ArrayDeque<>();
+        long rows = 0;
+        long matched = 0;
+        boolean more = true;
+        while (more || !inFlight.isEmpty()) {
+            while (more && inFlight.size() < 2 * threads) {
+                List<String[]> chunk = new ArrayList<>(CHUNK_SIZE);
+                String[] row;
+                while (chunk.size() < CHUNK_SIZE && (row = csv.read()) != null) {
+                    chunk.add(row);
+                }
+                more = chunk.size() == CHUNK_SIZE;
+                if (!chunk.isEmpty()) {
+                    inFlight.add(pool.submit(() -> resolve(chunk, nameColumn)));
+                }
+            }
+            if (inFlight.isEmpty()) {
+                break;
+            }
+            Chunk done = await(inFlight.poll());
+            writer.append(done.text);
+            rows += done.rows;
+            matched += done.matched;
+        }
+        writer.flush();
+        return new BatchStats(rows, matched, System.nanoTime() - start);
+    }
+
+    private Chunk resolve(List<String[]> rows, int nameColumn) {
+        StringBuilder text = new StringBuilder(rows.size() * 160);
+        String[] match = new String[MATCH_COLUMNS.length];
+        int matched = 0;
+        for (String[] row : rows) {
+            Resolution resolution = resolver.resolve(nameColumn < row.length ? row[nameColumn] : "");
+            University university = resolution.university();
+            if (university != null) {
+                matched++;
+                match[0] = university.name();
+                match[1] = university.country();
+                match[2] = university.domains().isEmpty() ? "" : university.domains().get(0);
+                match[3] = String.format(Locale.ROOT, "%.3f", resolution.confidence());
+            } else {
+                match[0] = match[1] = match[2] = "";
+                match[3] = "0";
+            }
+            match[4] = resolution.kind().name().toLowerCase(Locale.ROOT);
+            appendRow(row, match, text);
+            text.append('\n');
+        }
+        return new Chunk(text, rows.size(), matched);
+    }
+
+    private static void appendRow(String[] fields, String[] extra, StringBuilder out) {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            Csv.write(fields[i], out);
+        }
+        for (String value : extra) {
+            out.append(',');
+            Csv.write(value, out);
+        }
+    }
+
+    private static int columnIndex(String[] titles, String column) throws IOException {
+        for (int i = 0; i < titles.length; i++) {
+            if (titles[i].trim().equalsIgnoreCase(column)) {
+                return i;
+            }
+        }
+        throw new IOException("No column named " + column);
+    }
+
+    private static Chunk await(Future<Chunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while resolving", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Resolving failed", e.getCause());
+        }
+    }
+
+    /** Stops the resolver threads. */
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    public static void main(String[] args) {
+        Path data = null;
+        Path cacheDir = Path.of(System.getProperty("user.home"), ".uniapp");
+        Path inFile = null;
+        Path outFile = null;
+        String column = null;
+        int index = -1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--data" -> data = Path.of(value(args, ++i));
+                    case "--cache-dir" -> cacheDir = Path.of(value(args, ++i));
+                    case "--in" -> inFile = Path.of(value(args, ++i));
+                    case "--out" -> outFile = Path.of(value(args, ++i));
+                    case "--column" -> column = value(args, ++i);
+                    case "--index" -> index = Integer.parseInt(value(args, ++i));
+                    case "--threads" -> threads = Integer.parseInt(value(args, ++i));
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            if (data == null) {
+                throw new IllegalArgumentException("Missing --data");
+            }
+            if (threads < 1 || index < -1) {
+                throw new IllegalArgumentException("Invalid --threads or --index");
+            }
+            if (column != null && index >= 0) {
+                // Input with --index has no header row, so there is no column name to look for.
+                throw new IllegalArgumentException("--column and --index cannot be combined");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("usage: BatchResolver --data FILE [--cache-dir DIR] [--column NAME | --index N] "
+                    + "[--threads N] [--in FILE] [--out FILE]");
+            System.exit(2);
+            return;
+        }
+        try (BatchResolver batch = new BatchResolver(new NameResolver(HeadlessSearch.open(data, cacheDir).engine()),
+                threads);
+             Reader in = inFile != null ? Files.newBufferedReader(inFile)
+                     : new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+             Writer out = outFile != null ? Files.newBufferedWriter(outFile)
+                     : new OutputStreamWriter(System.out, StandardCharsets.UTF_8)) {
+            BatchStats stats = batch.resolve(in, out, index < 0, column, Math.max(index, 0));
+            System.err.println(stats);
+        } catch (IOException e) {
+            System.err.println("BatchResolver: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+        }
+        return args[i];
+    }
+
+    /** Output of one chunk, ready to be written. */
+    private record Chunk(CharSequence text, int rows, int matched) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.uniapp.headless;
+
+import java.util.Locale;
+
+/**
+ * Totals of one {@link BatchResolver#resolve} run.
+ *
+ * @param rows    input rows resolved
+ * @param matched rows for which a university was found
+ * @param nanos   wall-clock time of the run
+ */
+public record BatchStats(long rows, long matched, long nanos) {
+
+    public double rowsPerSecond() {
+        return nanos == 0 ? 0 : rows * 1e9 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "Resolved %d rows (%d matched) in %.1f s, %.0f rows/s",
+                rows, matched, nanos / 1e9, rowsPerSecond());
+    }
+}
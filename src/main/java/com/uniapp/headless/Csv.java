@@ -0,0 +1,111 @@
+package com.uniapp.headless;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 CSV reading and writing: comma-separated fields, optionally
+ * enclosed in double quotes, with doubled quotes inside quoted fields and line
+ * breaks allowed inside them.
+ */
+final class Csv {
+
+    private final Reader in;
+    private final char[] buffer = new char[1 << 16];
+    private final StringBuilder field = new StringBuilder(64);
+    private int pos;
+    private int limit;
+    private long line = 1;
+
+    Csv(Reader in) {
+        this.in = in;
+    }
+
+    /** Returns the fields of the next record, or {@code null} at the end of the input. */
+    String[] read() throws IOException {
+        if (!fill()) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        while (fill()) {
+            char c = buffer[pos++];
+            if (quoted) {
+                if (c != '"') {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append(c);
+                } else if (fill() && buffer[pos] == '"') {
+                    field.append('"');
+                    pos++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"' && field.length() == 0 && !wasQuoted) {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                wasQuoted = false;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && fill() && buffer[pos] == '\n') {
+                    pos++;
+                }
+                line++;
+                fields.add(field.toString());
+                return fields.toArray(new String[0]);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IOException("Unterminated quoted field at line " + line);
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    private boolean fill() throws IOException {
+        if (pos < limit) {
+            return true;
+        }
+        limit = in.read(buffer, 0, buffer.length);
+        pos = 0;
+        if (limit <= 0) {
+            limit = 0;
+            return false;
+        }
+        return true;
+    }
+
+    /** Appends {@code value} as a field, quoting it if it contains a separator, quote or line break. */
+    static void write(String value, StringBuilder out) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,114 @@
+package com.uniapp.headless;
+
+import com.uniapp.cache.FileUniversitySource;
+import com.uniapp.cache.LocatedUniversitySource;
+import com.uniapp.cache.UniversityCache;
+import com.uniapp.cache.UniversitySource;
+import com.uniapp.ingest.LoadReport;
+import com.uniapp.ingest.UniversityLoader;
+import com.uniapp.metrics.SearchMetrics;
+import com.uniapp.model.GeoPoint;
+import com.uniapp.search.FacetSelection;
+import com.uniapp.search.GeoMatch;
+import com.uniapp.search.IndexSnapshot;
+import com.uniapp.search.QueryRunner;
+import com.uniapp.search.SearchEngine;
+import com.uniapp.search.SearchResult;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Searches the university dataset without a GUI, e.g. from batch jobs or
+ * {@link SearchCli}. Queries go through the same {@link QueryRunner} as the
+ * desktop search box, so results, ranking and fuzzy fallback are identical.
+ * <p>
+ * Instances are immutable apart from their metrics and may be shared by
+ * several threads.
+ */
+public final class HeadlessSearch {
+
+    static final String CACHE_FILE = "universities.cache";
+    static final String SNAPSHOT_FILE = "index.snapshot";
+
+    private final SearchEngine engine;
+    private final QueryRunner runner;
+    private final LoadReport loadReport;
+
+    public HeadlessSearch(SearchEngine engine) {
+        this(engine, new SearchMetrics(), null);
+    }
+
+    private HeadlessSearch(SearchEngine engine, SearchMetrics metrics, LoadReport loadReport) {
+        this.engine = engine;
+        this.runner = new QueryRunner(metrics);
+        this.loadReport = loadReport;
+    }
+
+    /**
+     * Loads the JSON dataset in {@code dataset}, keeping the binary cache and
+     * index snapshot in {@code cacheDir} so that later runs against the same
+     * file start without re-indexing. A new snapshot is written when the JVM
+     * exits, so answering the first query does not wait for it.
+     */
+    public static HeadlessSearch open(Path dataset, Path cacheDir) throws IOException {
+        return open(new FileUniversitySource(dataset), cacheDir);
+    }
+
+    /**
+     * Loads the JSON dataset in {@code dataset} with the coordinates listed in
+     * {@code locations}, as read by {@link LocatedUniversitySource}, keeping
+     * the cache and snapshot in {@code cacheDir}.
+     */
+    public static HeadlessSearch open(Path dataset, Path locations, Path cacheDir) throws IOException {
+        return open(new LocatedUniversitySource(new FileUniversitySource(dataset), locations), cacheDir);
+    }
+
+    private static HeadlessSearch open(UniversitySource source, Path cacheDir) throws IOException {
+        UniversityLoader loader = new UniversityLoader(new UniversityCache(cacheDir.resolve(CACHE_FILE)),
+                new IndexSnapshot(cacheDir.resolve(SNAPSHOT_FILE)));
+        SearchEngine engine = loader.load(source, partial -> {
+        });
+        loader.saveOnExit(() -> engine);
+        return new HeadlessSearch(engine, new SearchMetrics(), loader.lastLoad());
+    }
+
+    public SearchEngine engine() {
+        return engine;
+    }
+
+    public SearchMetrics metrics() {
+        return runner.metrics();
+    }
+
+    /** Returns how the engine was loaded by {@link #open}, or {@code null} for an engine passed in directly. */
+    public LoadReport loadReport() {
+        return loadReport;
+    }
+
+    /** Returns the result of {@code query}, as the search box would show it. */
+    public SearchResult search(String query) {
+        return runner.run(engine, query, FacetSelection.NONE);
+    }
+
+    /** Returns the result of {@code query} within {@code selection}, as the search box would show it. */
+    public SearchResult search(String query, FacetSelection selection) {
+        return runner.run(engine, query, selection);
+    }
+
+    /** Returns the {@code n} universities nearest {@code origin} matching {@code query} within {@code selection}. */
+    public List<GeoMatch> nearest(String query, FacetSelection selection, GeoPoint origin, int n) {
+        return engine.nearest(query, selection, origin, n);
+    }
+
+    /**
+     * Returns up to {@code limit} universities within {@code radiusKm} of
+     * {@code origin} matching {@code query} within {@code selection}, nearest
+     * first.
+     */
+    public List<GeoMatch> within(String query, FacetSelection selection, GeoPoint origin, double radiusKm,
+                                 int limit) {
+        return engine.within(query, selection, origin, radiusKm, limit);
+    }
+}
@@ -0,0 +1,262 @@
+package com.uniapp.headless;
+
+import com.uniapp.ingest.UniversityJsonWriter;
+import com.uniapp.metrics.Stage;
+import com.uniapp.model.GeoPoint;
+import com.uniapp.model.University;
+import com.uniapp.search.Facet;
+import com.uniapp.search.FacetSelection;
+import com.uniapp.search.GeoMatch;
+import com.uniapp.search.SearchDiagnostics;
+import com.uniapp.search.SearchResult;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Command-line search: reads one query per line from standard input and
+ * writes one JSON object per line to standard output, in input order.
+ * <pre>
+ * java -cp uniapp.jar com.uniapp.headless.SearchCli --data world_universities.json [options] &lt; queries.txt
+ *
+ *   --cache-dir DIR   where the binary cache and index snapshot are kept (default ~/.uniapp)
+ *   --limit N         maximum universities written per query (default 10)
+ *   --country NAME    only match universities in this country; may be repeated
+ *   --locations FILE  coordinates to add to the dataset, see {@link com.uniapp.cache.LocatedUniversitySource}
+ *   --near LAT,LON    return the universities nearest this point instead of the most relevant
+ *   --radius KM       with --near, only return universities within this distance
+ *   --stats           print stage latencies to standard error when done
+ * </pre>
+ * Each output line has the form
+ * {@code {"query":"...","total":123,"fuzzy":false,"results":[{...}, ...]}},
+ * where {@code total} counts all matches and {@code results} holds the best
+ * {@code limit} in dataset field names. With {@code --near}, a blank line
+ * matches every university with a location, results are nearest first and
+ * followed by their distances, {@code "distances_km":[1.25, ...]}, and
+ * {@code total} counts the matches within the radius, or the results without
+ * one. Output is flushed whenever no more input is immediately available, so
+ * the tool also works interactively.
+ */
+public final class SearchCli {
+
+    static final int DEFAULT_LIMIT = 10;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private SearchCli() {
+    }
+
+    public static void main(String[] args) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("usage: SearchCli --data FILE [--cache-dir DIR] [--limit N] [--country NAME]... "
+                    + "[--locations FILE] [--near LAT,LON [--radius KM]] [--stats]");
+            System.exit(2);
+            return;
+        }
+        try {
+            HeadlessSearch search = options.locations == null
+                    ? HeadlessSearch.open(options.data, options.cacheDir)
+                    : HeadlessSearch.open(options.data, options.locations, options.cacheDir);
+            Reader in = new InputStreamReader(System.in, StandardCharsets.UTF_8);
+            Writer out = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+            if (options.near == null) {
+                run(search, options.selection, options.limit, in, out);
+            } else {
+                runNear(search, options.selection, options.near, options.radiusKm, options.limit, in, out);
+            }
+            if (options.stats) {
+                System.err.print(SearchDiagnostics.capture(search.metrics(), search.engine()).format());
+            }
+        } catch (IOException e) {
+            System.err.println("SearchCli: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Answers every line of {@code in} and writes the results to {@code out}
+     * as JSON lines. Returns the number of queries answered. Neither stream is
+     * closed.
+     */
+    public static int run(HeadlessSearch search, FacetSelection selection, int limit, Reader in, Writer out)
+            throws IOException {
+        return answer(search, in, out, (query, line) -> {
+            SearchResult result = search.search(query, selection);
+            long write = System.nanoTime();
+            writeResult(result, limit, line);
+            search.metrics().recordSince(Stage.RENDER, write);
+        });
+    }
+
+    /**
+     * Answers every line of {@code in} with the universities matching it
+     * nearest {@code origin}: all within {@code radiusKm}, of which the nearest
+     * {@code limit} are written, or the nearest {@code limit} if
+     * {@code radiusKm} is {@code NaN}. Returns the number of queries answered.
+     * Neither stream is closed.
+     */
+    public static int runNear(HeadlessSearch search, FacetSelection selection, GeoPoint origin, double radiusKm,
+                              int limit, Reader in, Writer out) throws IOException {
+        return answer(search, in, out, (query, line) -> {
+            List<GeoMatch> matches = Double.isNaN(radiusKm)
+                    ? search.nearest(query, selection, origin, limit)
+                    : search.within(query, selection, origin, radiusKm, Integer.MAX_VALUE);
+            writeNear(search, query, matches, limit, line);
+        });
+    }
+
+    private static int answer(HeadlessSearch search, Reader in, Writer out, Answer answer) throws IOException {
+        BufferedReader reader = new BufferedReader(in, BUFFER_SIZE);
+        BufferedWriter writer = new BufferedWriter(out, BUFFER_SIZE);
+        StringBuilder line = new StringBuilder(1024);
+        int count = 0;
+        String query;
+        while ((query = reader.readLine()) != null) {
+            long start = System.nanoTime();
+            line.setLength(0);
+            answer.write(query, line);
+            writer.append(line).append('\n');
+            search.metrics().recordSince(Stage.TOTAL, start);
+            count++;
+            if (!reader.ready()) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    static void writeResult(SearchResult result, int limit, StringBuilder out) throws IOException {
+        List<University> universities = result.universities();
+        out.append("{\"query\":");
+        UniversityJsonWriter.writeString(result.query(), out);
+        out.append(",\"total\":").append(universities.size());
+        out.append(",\"fuzzy\":").append(result.fuzzy());
+        out.append(",\"results\":[");
+        int n = Math.min(limit, universities.size());
+        for (int i = 0; i < n; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            UniversityJsonWriter.write(universities.get(i), out);
+        }
+        out.append("]}");
+    }
+
+    static void writeNear(HeadlessSearch search, String query, List<GeoMatch> matches, int limit, StringBuilder out)
+            throws IOException {
+        out.append("{\"query\":");
+        UniversityJsonWriter.writeString(query, out);
+        out.append(",\"total\":").append(matches.size());
+        out.append(",\"fuzzy\":false,\"results\":[");
+        int n = Math.min(limit, matches.size());
+        for (int i = 0; i < n; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            UniversityJsonWriter.write(search.engine().universities().get(matches.get(i).docId()), out);
+        }
+        out.append("],\"distances_km\":[");
+        for (int i = 0; i < n; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append(String.format(Locale.ROOT, "%.3f", matches.get(i).distanceKm()));
+        }
+        out.append("]}");
+    }
+
+    /** Writes the answer to one query line. */
+    private interface Answer {
+        void write(String query, StringBuilder line) throws IOException;
+    }
+
+    private record Options(Path data, Path cacheDir, int limit, FacetSelection selection, Path locations,
+                           GeoPoint near, double radiusKm, boolean stats) {
+
+        static Options parse(String[] args) {
+            Path data = null;
+            Path cacheDir = Path.of(System.getProperty("user.home"), ".uniapp");
+            int limit = DEFAULT_LIMIT;
+            Set<String> countries = new HashSet<>();
+            Path locations = null;
+            GeoPoint near = null;
+            double radiusKm = Double.NaN;
+            boolean stats = false;
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--data" -> data = Path.of(value(args, ++i));
+                    case "--cache-dir" -> cacheDir = Path.of(value(args, ++i));
+                    case "--limit" -> limit = limit(value(args, ++i));
+                    case "--country" -> countries.add(value(args, ++i));
+                    case "--locations" -> locations = Path.of(value(args, ++i));
+                    case "--near" -> near = near(value(args, ++i));
+                    case "--radius" -> radiusKm = radius(value(args, ++i));
+                    case "--stats" -> stats = true;
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            if (data == null) {
+                throw new IllegalArgumentException("Missing --data");
+            }
+            if (near == null && !Double.isNaN(radiusKm)) {
+                throw new IllegalArgumentException("--radius requires --near");
+            }
+            return new Options(data, cacheDir, limit, FacetSelection.NONE.with(Facet.COUNTRY, countries), locations,
+                    near, radiusKm, stats);
+        }
+
+        private static String value(String[] args, int i) {
+            if (i >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+            }
+            return args[i];
+        }
+
+        private static int limit(String value) {
+            try {
+                int limit = Integer.parseInt(value);
+                if (limit >= 0) {
+                    return limit;
+                }
+            } catch (NumberFormatException e) {
+                // Reported below.
+            }
+            throw new IllegalArgumentException("Invalid --limit " + value);
+        }
+
+        private static GeoPoint near(String value) {
+            try {
+                return GeoPoint.parse(value);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid --near " + value);
+            }
+        }
+
+        private static double radius(String value) {
+            try {
+                double radius = Double.parseDouble(value);
+                if (radius >= 0) {
+                    return radius;
+                }
+            } catch (NumberFormatException e) {
+                // Reported below.
+            }
+            throw new IllegalArgumentException("Invalid --radius " + value);
+        }
+    }
+}
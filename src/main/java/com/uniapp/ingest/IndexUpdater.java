@@ -0,0 +1,170 @@
+package com.uniapp.ingest;
+
+import com.uniapp.cache.DatasetDelta;
+import com.uniapp.cache.RefreshResult;
+import com.uniapp.cache.UniversityCache;
+import com.uniapp.cache.UniversitySource;
+import com.uniapp.model.University;
+import com.uniapp.search.SearchEngine;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a live {@link SearchEngine} in step with a changing dataset without
+ * re-indexing it.
+ * <p>
+ * Each {@link #update} refreshes the cache, which diffs the source against
+ * the cached records, and applies the inserted, updated and deleted records
+ * to the engine with {@link SearchEngine#patch}. The patched engine shares
+ * everything the changes leave alone with the current one, which is never
+ * modified, so queries already running finish on the snapshot they started
+ * with and nothing waits for the update. The new engine is handed to the
+ * publisher, e.g. {@link com.uniapp.search.SearchPipeline#engine}.
+ * <p>
+ * Document ids stay dense: inserted records take the ids of deleted ones
+ * first, and ids still free afterwards are filled by moving documents from
+ * the end. The engine is rebuilt from the cache instead when a delta touches
+ * more than a quarter of the documents, which is cheaper than patching that
+ * much, or when the engine no longer matches the cache, e.g. it was loaded
+ * from a source with duplicate records.
+ */
+public final class IndexUpdater {
+
+    private static final int REBUILD_DIVISOR = 4;
+
+    private final UniversityCache cache;
+    private final Consumer<SearchEngine> publish;
+    private final Consumer<UpdateReport> reports;
+    private volatile SearchEngine engine;
+    private Map<String, Integer> docIds;
+    private volatile UpdateReport lastUpdate;
+
+    /**
+     * Creates an updater for {@code engine}, which must index the records
+     * currently in {@code cache}. {@code publish} receives every new engine.
+     */
+    public IndexUpdater(UniversityCache cache, SearchEngine engine, Consumer<SearchEngine> publish) {
+        this(cache, engine, publish, report -> {
+        });
+    }
+
+    /** Creates an updater that also passes the report of every update to {@code reports}. */
+    IndexUpdater(UniversityCache cache, SearchEngine engine, Consumer<SearchEngine> publish,
+                 Consumer<UpdateReport> reports) {
+        this.cache = cache;
+        this.publish = publish;
+        this.reports = reports;
+        this.engine = engine;
+    }
+
+    /** Returns the engine after the latest update, without waiting for one in progress. */
+    public SearchEngine engine() {
+        return engine;
+    }
+
+    /** Returns the report of the most recent {@link #update}, or {@code null}. */
+    public UpdateReport lastUpdate() {
+        return lastUpdate;
+    }
+
+    /**
+     * Brings the cache and the engine up to date with {@code source} and
+     * publishes the new engine if anything changed. Updates are serialized;
+     * searches and {@link #engine} never wait for them.
+     */
+    public synchronized UpdateReport update(UniversitySource source) throws IOException {
+        long start = System.nanoTime();
+        List<DatasetDelta> deltas = new ArrayList<>(1);
+        RefreshResult refresh = cache.refresh(source, deltas::add);
+        boolean rebuilt = false;
+        if (refresh.changed()) {
+            SearchEngine patched = deltas.isEmpty() ? null : patch(deltas.get(0));
+            if (patched == null) {
+                patched = new SearchEngine(cache.load());
+                docIds = null;
+                rebuilt = true;
+            }
+            engine = patched;
+            publish.accept(patched);
+        }
+        UpdateReport report = new UpdateReport(refresh, rebuilt, engine.universities().size(),
+                System.nanoTime() - start);
+        lastUpdate = report;
+        reports.accept(report);
+        return report;
+    }
+
+    /** Returns the engine with {@code delta} applied, or {@code null} if it must be rebuilt instead. */
+    private SearchEngine patch(DatasetDelta delta) {
+        List<University> universities = engine.universities();
+        int size = universities.size();
+        if (delta.size() > size / REBUILD_DIVISOR || !indexDocIds(universities)) {
+            return null;
+        }
+        Map<Integer, University> records = new HashMap<>();
+        for (University university : delta.updated()) {
+            Integer docId = docIds.get(UniversityCache.key(university));
+            if (docId == null) {
+                return stale();
+            }
+            records.put(docId, university);
+        }
+        TreeSet<Integer> free = new TreeSet<>();
+        for (University university : delta.deleted()) {
+            Integer docId = docIds.remove(UniversityCache.key(university));
+            if (docId == null) {
+                return stale();
+            }
+            free.add(docId);
+        }
+        int next = size;
+        for (University university : delta.inserted()) {
+            Integer docId = free.isEmpty() ? Integer.valueOf(next++) : free.pollFirst();
+            if (docIds.putIfAbsent(UniversityCache.key(university), docId) != null) {
+                return stale();
+            }
+            records.put(docId, university);
+        }
+        // Fill the ids left free below the new size with the last documents.
+        int newSize = next - free.size();
+        int last = size - 1;
+        for (int docId : free.headSet(newSize)) {
+            while (free.contains(last)) {
+                last--;
+            }
+            University moved = records.containsKey(last) ? records.remove(last) : universities.get(last);
+            records.put(docId, moved);
+            docIds.put(UniversityCache.key(moved), docId);
+            last--;
+        }
+        free.tailSet(newSize).forEach(records::remove);
+        return engine.patch(records, newSize);
+    }
+
+    /** Maps each record key to its document, returning {@code false} if keys are not unique. */
+    private boolean indexDocIds(List<University> universities) {
+        if (docIds == null) {
+            Map<String, Integer> map = new HashMap<>(universities.size() * 4 / 3 + 1);
+            for (int docId = 0; docId < universities.size(); docId++) {
+                map.put(UniversityCache.key(universities.get(docId)), docId);
+            }
+            if (map.size() != universities.size()) {
+                return false;
+            }
+            docIds = map;
+        }
+        return true;
+    }
+
+    /** Discards the id map after a delta that does not fit the engine, forcing a rebuild. */
+    private SearchEngine stale() {
+        docIds = null;
+        return null;
+    }
+}
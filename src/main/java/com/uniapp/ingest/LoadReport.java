@@ -0,0 +1,30 @@
+package com.uniapp.ingest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How {@link UniversityLoader#load} obtained its engine and how long it took.
+ *
+ * @param version   the dataset version that was loaded
+ * @param origin    where the engine came from
+ * @param documents the number of indexed universities
+ * @param nanos     the wall-clock time from the start of the load until the
+ *                  final engine was ready
+ */
+public record LoadReport(long version, Origin origin, int documents, long nanos) {
+
+    /** Where a loaded engine came from, from cheapest to most expensive. */
+    public enum Origin {
+        /** Restored from the index snapshot without tokenizing. */
+        SNAPSHOT,
+        /** Indexed from the binary dataset cache. */
+        CACHE,
+        /** Streamed from the dataset source. */
+        SOURCE
+    }
+
+    /** Returns the startup time in milliseconds. */
+    public long millis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
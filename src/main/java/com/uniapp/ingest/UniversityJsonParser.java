@@ -0,0 +1,284 @@
+package com.uniapp.ingest;
+
+import com.uniapp.model.GeoPoint;
+import com.uniapp.model.University;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Parses the university domains dataset, a JSON array of objects such as
+ * <pre>
+ * {"name": "...", "country": "Greece", "alpha_two_code": "GR",
+ *  "state-province": null, "domains": ["uoa.gr"], "web_pages": ["https://www.uoa.gr/"]}
+ * </pre>
+ * Optional numeric {@code latitude} and {@code longitude} fields give the
+ * university a location; unknown fields are skipped.
+ * <p>
+ * The parser reads through a fixed-size buffer and hands each record to a
+ * sink as soon as its closing brace is read, so memory use does not grow with
+ * the size of the document.
+ */
+public final class UniversityJsonParser {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder text = new StringBuilder(64);
+    private int pos;
+    private int limit;
+    private long consumed;
+
+    private UniversityJsonParser(Reader in) {
+        this.in = in;
+    }
+
+    /** Parses a complete dataset document. */
+    public static List<University> parse(String json) throws IOException {
+        List<University> universities = new ArrayList<>();
+        parse(new StringReader(json), universities::add);
+        return universities;
+    }
+
+    /**
+     * Parses a dataset document from {@code in}, passing every record to
+     * {@code sink} in document order as soon as it has been read. Returns the
+     * number of records parsed. The reader is not closed.
+     */
+    public static int parse(Reader in, Consumer<University> sink) throws IOException {
+        UniversityJsonParser parser = new UniversityJsonParser(in);
+        int count = 0;
+        parser.expect('[');
+        if (!parser.consume(']')) {
+            do {
+                sink.accept(parser.readUniversity());
+                count++;
+            } while (parser.consume(','));
+            parser.expect(']');
+        }
+        return count;
+    }
+
+    private University readUniversity() throws IOException {
+        String name = null;
+        String country = null;
+        String alphaTwoCode = null;
+        String stateProvince = null;
+        List<String> domains = null;
+        List<String> webPages = null;
+        double latitude = Double.NaN;
+        double longitude = Double.NaN;
+        expect('{');
+        if (!consume('}')) {
+            do {
+                String field = readString();
+                expect(':');
+                switch (field) {
+                    case "name" -> name = readNullableString();
+                    case "country" -> country = readNullableString();
+                    case "alpha_two_code" -> alphaTwoCode = readNullableString();
+                    case "state-province" -> stateProvince = readNullableString();
+                    case "domains" -> domains = readStringArray();
+                    case "web_pages" -> webPages = readStringArray();
+                    case "latitude" -> latitude = readNullableNumber();
+                    case "longitude" -> longitude = readNullableNumber();
+                    default -> skipValue();
+                }
+            } while (consume(','));
+            expect('}');
+        }
+        if (name == null || country == null) {
+            throw error("university without name or country");
+        }
+        GeoPoint location = null;
+        if (!Double.isNaN(latitude) && !Double.isNaN(longitude)) {
+            try {
+                location = new GeoPoint(latitude, longitude);
+            } catch (IllegalArgumentException e) {
+                throw error(e.getMessage());
+            }
+        }
+        return new University(name, country, alphaTwoCode, stateProvince, domains, webPages, location);
+    }
+
+    /** Reads a number, or {@code null} as {@code NaN}. */
+    private double readNullableNumber() throws IOException {
+        if (consumeLiteral("null")) {
+            return Double.NaN;
+        }
+        text.setLength(0);
+        while (fill() && ",}] \t\r\n".indexOf(buffer[pos]) < 0) {
+            text.append(buffer[pos++]);
+        }
+        try {
+            return Double.parseDouble(text.toString());
+        } catch (NumberFormatException e) {
+            throw error("invalid number " + text);
+        }
+    }
+
+    private List<String> readStringArray() throws IOException {
+        if (consumeLiteral("null")) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(2);
+        expect('[');
+        if (!consume(']')) {
+            do {
+                values.add(readString());
+            } while (consume(','));
+            expect(']');
+        }
+        return values;
+    }
+
+    private String readNullableString() throws IOException {
+        return consumeLiteral("null") ? null : readString();
+    }
+
+    private String readString() throws IOException {
+        expect('"');
+        text.setLength(0);
+        while (fill()) {
+            // Copy unescaped runs straight out of the buffer.
+            int start = pos;
+            while (pos < limit) {
+                char c = buffer[pos];
+                if (c == '"' || c == '\\') {
+                    break;
+                }
+                pos++;
+            }
+            text.append(buffer, start, pos - start);
+            if (pos == limit) {
+                continue;
+            }
+            if (buffer[pos++] == '"') {
+                return text.toString();
+            }
+            text.append(readEscape());
+        }
+        throw error("unterminated string");
+    }
+
+    private char readEscape() throws IOException {
+        if (!fill()) {
+            throw error("unterminated escape");
+        }
+        char c = buffer[pos++];
+        return switch (c) {
+            case '"', '\\', '/' -> c;
+            case 'b' -> '\b';
+            case 'f' -> '\f';
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 't' -> '\t';
+            case 'u' -> {
+                int u = 0;
+                for (int i = 0; i < 4; i++) {
+                    if (!fill()) {
+                        throw error("truncated unicode escape");
+                    }
+                    int digit = Character.digit(buffer[pos++], 16);
+                    if (digit < 0) {
+                        throw error("invalid unicode escape");
+                    }
+                    u = (u << 4) | digit;
+                }
+                yield (char) u;
+            }
+            default -> throw error("invalid escape \\" + c);
+        };
+    }
+
+    private void skipValue() throws IOException {
+        skipWhitespace();
+        if (!fill()) {
+            throw error("unexpected end of input");
+        }
+        char c = buffer[pos];
+        if (c == '"') {
+            readString();
+        } else if (c == '{' || c == '[') {
+            char close = c == '{' ? '}' : ']';
+            pos++;
+            if (!consume(close)) {
+                do {
+                    if (c == '{') {
+                        readString();
+                        expect(':');
+                    }
+                    skipValue();
+                } while (consume(','));
+                expect(close);
+            }
+        } else {
+            while (fill() && ",}] \t\r\n".indexOf(buffer[pos]) < 0) {
+                pos++;
+            }
+        }
+    }
+
+    private boolean consumeLiteral(String literal) throws IOException {
+        skipWhitespace();
+        if (!fill() || buffer[pos] != literal.charAt(0)) {
+            return false;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (!fill() || buffer[pos] != literal.charAt(i)) {
+                throw error("expected " + literal);
+            }
+            pos++;
+        }
+        return true;
+    }
+
+    private boolean consume(char c) throws IOException {
+        skipWhitespace();
+        if (fill() && buffer[pos] == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) throws IOException {
+        if (!consume(c)) {
+            throw error("expected '" + c + "'");
+        }
+    }
+
+    private void skipWhitespace() throws IOException {
+        while (fill() && Character.isWhitespace(buffer[pos])) {
+            pos++;
+        }
+    }
+
+    /** Ensures at least one unread character is buffered; returns {@code false} at end of input. */
+    private boolean fill() throws IOException {
+        if (pos < limit) {
+            return true;
+        }
+        consumed += limit;
+        pos = 0;
+        limit = 0;
+        int n;
+        do {
+            n = in.read(buffer, 0, buffer.length);
+        } while (n == 0);
+        if (n < 0) {
+            return false;
+        }
+        limit = n;
+        return true;
+    }
+
+    private IOException error(String message) {
+        return new IOException("Malformed university JSON at offset " + (consumed + pos) + ": " + message);
+    }
+}
@@ -0,0 +1,78 @@
+package com.uniapp.ingest;
+
+import com.uniapp.model.University;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes universities as JSON objects with the field names of the dataset
+ * read by {@link UniversityJsonParser}, so its output can be parsed back.
+ */
+public final class UniversityJsonWriter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private UniversityJsonWriter() {
+    }
+
+    /** Appends {@code university} as a single-line JSON object. */
+    public static void write(University university, Appendable out) throws IOException {
+        out.append("{\"name\":");
+        writeString(university.name(), out);
+        out.append(",\"country\":");
+        writeString(university.country(), out);
+        out.append(",\"alpha_two_code\":");
+        writeString(university.alphaTwoCode(), out);
+        out.append(",\"state-province\":");
+        writeString(university.stateProvince(), out);
+        out.append(",\"domains\":");
+        writeStrings(university.domains(), out);
+        out.append(",\"web_pages\":");
+        writeStrings(university.webPages(), out);
+        if (university.location() != null) {
+            out.append(",\"latitude\":").append(Double.toString(university.location().latitude()));
+            out.append(",\"longitude\":").append(Double.toString(university.location().longitude()));
+        }
+        out.append('}');
+    }
+
+    /** Appends {@code value} as a JSON string literal, or {@code null}. */
+    public static void writeString(String value, Appendable out) throws IOException {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        int start = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            out.append(value, start, i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+            }
+            start = i + 1;
+        }
+        out.append(value, start, length).append('"');
+    }
+
+    private static void writeStrings(List<String> values, Appendable out) throws IOException {
+        out.append('[');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            writeString(values.get(i), out);
+        }
+        out.append(']');
+    }
+}
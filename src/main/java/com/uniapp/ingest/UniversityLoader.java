@@ -0,0 +1,193 @@
+package com.uniapp.ingest;
+
+import com.uniapp.cache.UniversityCache;
+import com.uniapp.cache.UniversitySource;
+import com.uniapp.model.University;
+import com.uniapp.search.IndexSnapshot;
+import com.uniapp.search.SearchEngine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Loads the dataset into a {@link SearchEngine}, streaming each record from the
+ * source into the index and the cache as it is parsed.
+ * <p>
+ * While records arrive, partial engines are published at doubling record
+ * counts so the first results can be shown before ingestion finishes; the
+ * doubling keeps the total snapshot cost linear in the dataset size.
+ * <p>
+ * With an {@link IndexSnapshot}, a launch against an unchanged dataset skips
+ * indexing altogether and restores the engine saved by {@link #save} on the
+ * previous exit. A snapshot that fails validation is deleted and the engine
+ * rebuilt. {@link #saveOnExit} writes the snapshot back when the application
+ * shuts down. {@link #lastLoad} reports where the engine came from and how long
+ * startup took. An {@link #updater} keeps the loaded engine current and marks
+ * the snapshot for saving whenever it patches the engine.
+ */
+public final class UniversityLoader {
+
+    private static final int FIRST_SNAPSHOT = 256;
+
+    private final UniversityCache cache;
+    private final IndexSnapshot snapshot;
+    private volatile LoadReport lastLoad;
+    /** The dataset version of the engine last loaded or patched. */
+    private long version;
+    /** Whether that engine differs from the saved snapshot. */
+    private boolean dirty;
+
+    public UniversityLoader(UniversityCache cache) {
+        this(cache, null);
+    }
+
+    /** Creates a loader that restores from and saves to {@code snapshot}, which may be {@code null}. */
+    public UniversityLoader(UniversityCache cache, IndexSnapshot snapshot) {
+        this.cache = cache;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Returns an engine over the current dataset of {@code source}. A snapshot
+     * of the same version is restored as is, and an intact cache holding the
+     * same version is read directly; otherwise the source is streamed and the
+     * cache rewritten along the way. {@code progress} receives every partial engine
+     * published before the final one is returned.
+     */
+    public SearchEngine load(UniversitySource source, Consumer<SearchEngine> progress) throws IOException {
+        long start = System.nanoTime();
+        long version = source.version();
+        SearchEngine restored = restore(version);
+        if (restored != null) {
+            return finish(restored, version, LoadReport.Origin.SNAPSHOT, start);
+        }
+        SearchEngine.Builder builder = new SearchEngine.Builder();
+        Snapshots snapshots = new Snapshots(builder, progress);
+        if (cache.exists() && cache.version() == version) {
+            List<University> cached = loadCache();
+            if (cached != null) {
+                cached.forEach(snapshots);
+                return finish(builder.snapshot(), version, LoadReport.Origin.CACHE, start);
+            }
+        }
+        try (UniversityCache.Writer writer = cache.writer(version)) {
+            // Index only what the cache keeps, so the engine and the cache hold the same records.
+            source.stream(university -> {
+                if (writer.add(university)) {
+                    snapshots.accept(university);
+                }
+            });
+            writer.commit();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return finish(builder.snapshot(), version, LoadReport.Origin.SOURCE, start);
+    }
+
+    /** Returns the report of the most recent successful {@link #load}, or {@code null}. */
+    public LoadReport lastLoad() {
+        return lastLoad;
+    }
+
+    /**
+     * Returns an updater for {@code engine}, the result of the last
+     * {@link #load}, that hands every new engine to {@code publish} and
+     * records its dataset version for {@link #save}.
+     */
+    public IndexUpdater updater(SearchEngine engine, Consumer<SearchEngine> publish) {
+        return new IndexUpdater(cache, engine, publish, this::updated);
+    }
+
+    /**
+     * Saves {@code engine}, the latest engine loaded or published by an
+     * {@link #updater}, as the index snapshot for the dataset version it holds,
+     * so the next launch can skip indexing. Meant to be called on exit; does
+     * nothing without a snapshot or when the snapshot is already current.
+     */
+    public synchronized void save(SearchEngine engine) throws IOException {
+        if (snapshot != null && dirty) {
+            snapshot.save(engine, version);
+            dirty = false;
+        }
+    }
+
+    /**
+     * Registers a shutdown hook that {@linkplain #save saves} the engine
+     * supplied by {@code latest}, e.g. {@code updater::engine}, when the JVM
+     * exits. Returns the hook so that an application closing earlier can save
+     * and remove it itself.
+     */
+    public Thread saveOnExit(Supplier<SearchEngine> latest) {
+        Thread hook = new Thread(() -> {
+            try {
+                save(latest.get());
+            } catch (IOException e) {
+                // A snapshot that could not be written only costs a rebuild on the next launch.
+            }
+        }, "uniapp-snapshot");
+        Runtime.getRuntime().addShutdownHook(hook);
+        return hook;
+    }
+
+    private synchronized void updated(UpdateReport report) {
+        if (report.refresh().changed()) {
+            version = report.refresh().version();
+            dirty = true;
+        }
+    }
+
+    /** Returns the cached records, or {@code null} if the cache is damaged and must be rewritten from the source. */
+    private List<University> loadCache() {
+        try {
+            return cache.load();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private SearchEngine restore(long version) throws IOException {
+        if (snapshot == null) {
+            return null;
+        }
+        try {
+            return snapshot.restore(version);
+        } catch (IOException e) {
+            // A damaged snapshot only costs a rebuild; the next save replaces it.
+            snapshot.delete();
+            return null;
+        }
+    }
+
+    private synchronized SearchEngine finish(SearchEngine engine, long version, LoadReport.Origin origin,
+                                             long start) {
+        this.version = version;
+        this.dirty = origin != LoadReport.Origin.SNAPSHOT;
+        lastLoad = new LoadReport(version, origin, engine.universities().size(), System.nanoTime() - start);
+        return engine;
+    }
+
+    /** Adds records to the builder and publishes a snapshot each time the count doubles. */
+    private static final class Snapshots implements Consumer<University> {
+
+        private final SearchEngine.Builder builder;
+        private final Consumer<SearchEngine> progress;
+        private int next = FIRST_SNAPSHOT;
+
+        Snapshots(SearchEngine.Builder builder, Consumer<SearchEngine> progress) {
+            this.builder = builder;
+            this.progress = progress;
+        }
+
+        @Override
+        public void accept(University university) {
+            builder.add(university);
+            if (builder.size() == next) {
+                next <<= 1;
+                progress.accept(builder.snapshot());
+            }
+        }
+    }
+}
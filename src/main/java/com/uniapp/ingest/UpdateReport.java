@@ -0,0 +1,23 @@
+package com.uniapp.ingest;
+
+import com.uniapp.cache.RefreshResult;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How {@link IndexUpdater#update} brought the engine up to date.
+ *
+ * @param refresh   what the cache refresh changed
+ * @param rebuilt   whether the engine was rebuilt from the cache instead of
+ *                  patched
+ * @param documents the number of indexed universities afterwards
+ * @param nanos     the wall-clock time of the whole update, including the
+ *                  refresh
+ */
+public record UpdateReport(RefreshResult refresh, boolean rebuilt, int documents, long nanos) {
+
+    /** Returns the update time in milliseconds. */
+    public long millis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
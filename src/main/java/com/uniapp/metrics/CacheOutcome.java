@@ -0,0 +1,14 @@
+package com.uniapp.metrics;
+
+/**
+ * How the query cache answered a lookup.
+ */
+public enum CacheOutcome {
+
+    /** The query itself was cached. */
+    HIT,
+    /** The hits of a cached prefix of the query were narrowed. */
+    REFINEMENT,
+    /** The index was searched. */
+    MISS
+}
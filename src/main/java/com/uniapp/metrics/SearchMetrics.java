@@ -0,0 +1,65 @@
+package com.uniapp.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms of the search stages, in nanoseconds, and counts of
+ * query cache outcomes.
+ * <p>
+ * One instance is shared by everything that answers searches and outlives
+ * the engines they search, so the counts cover every engine an updater
+ * published. Recording is lock-free, so it can stay enabled in production
+ * builds.
+ */
+public final class SearchMetrics {
+
+    private final Map<Stage, Histogram> stages = new EnumMap<>(Stage.class);
+    private final Map<CacheOutcome, LongAdder> cacheOutcomes = new EnumMap<>(CacheOutcome.class);
+
+    public SearchMetrics() {
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, new Histogram());
+        }
+        for (CacheOutcome outcome : CacheOutcome.values()) {
+            cacheOutcomes.put(outcome, new LongAdder());
+        }
+    }
+
+    /** Records that {@code stage} took {@code nanos}. */
+    public void record(Stage stage, long nanos) {
+        stages.get(stage).record(nanos);
+    }
+
+    /** Records the time from {@code startNanos}, a {@link System#nanoTime} reading, until now. */
+    public long recordSince(Stage stage, long startNanos) {
+        long now = System.nanoTime();
+        stages.get(stage).record(now - startNanos);
+        return now;
+    }
+
+    public Histogram histogram(Stage stage) {
+        return stages.get(stage);
+    }
+
+    /** Counts one query cache lookup answered as {@code outcome}. */
+    public void record(CacheOutcome outcome) {
+        cacheOutcomes.get(outcome).increment();
+    }
+
+    /** Returns the number of query cache lookups answered as {@code outcome}. */
+    public long count(CacheOutcome outcome) {
+        return cacheOutcomes.get(outcome).sum();
+    }
+
+    /** Clears every histogram and count. */
+    public void reset() {
+        for (Histogram histogram : stages.values()) {
+            histogram.reset();
+        }
+        for (LongAdder count : cacheOutcomes.values()) {
+            count.reset();
+        }
+    }
+}
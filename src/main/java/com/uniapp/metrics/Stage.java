@@ -0,0 +1,22 @@
+package com.uniapp.metrics;
+
+/**
+ * A timed step of answering a search.
+ */
+public enum Stage {
+
+    /** Splitting and normalizing the query into terms. */
+    TOKENIZE,
+    /** Resolving the terms and facet selection to hits, through the query cache. */
+    LOOKUP,
+    /** Approximate matching, run when a query has no exact hits. */
+    FUZZY,
+    /** Ordering the hits by relevance. */
+    RANK,
+    /** Counting the hits per facet value. */
+    FACETS,
+    /** Showing the result in the UI, on the event dispatch thread. */
+    RENDER,
+    /** From the start of the search until the result was shown. */
+    TOTAL
+}
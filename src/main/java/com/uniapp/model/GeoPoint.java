@@ -0,0 +1,42 @@
+package com.uniapp.model;
+
+/**
+ * A position on the earth's surface in decimal degrees (WGS 84).
+ *
+ * @param latitude  degrees north of the equator, from -90 to 90
+ * @param longitude degrees east of Greenwich, from -180 to 180
+ */
+public record GeoPoint(double latitude, double longitude) {
+
+    /** Mean earth radius in kilometres, as used for all distances. */
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    public GeoPoint {
+        if (!(latitude >= -90 && latitude <= 90) || !(longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("Invalid coordinates " + latitude + ", " + longitude);
+        }
+    }
+
+    /**
+     * Parses {@code "latitude,longitude"}, e.g. {@code "37.98,23.73"}.
+     *
+     * @throws IllegalArgumentException if {@code text} is not two numbers in range
+     */
+    public static GeoPoint parse(String text) {
+        int comma = text.indexOf(',');
+        if (comma < 0) {
+            throw new IllegalArgumentException("Expected latitude,longitude but got " + text);
+        }
+        return new GeoPoint(Double.parseDouble(text.substring(0, comma).trim()),
+                Double.parseDouble(text.substring(comma + 1).trim()));
+    }
+
+    /** Returns the great-circle distance to {@code other} in kilometres. */
+    public double distanceKm(GeoPoint other) {
+        double dLat = Math.toRadians(other.latitude - latitude);
+        double dLon = Math.toRadians(other.longitude - longitude);
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2) + Math.cos(Math.toRadians(latitude))
+                * Math.cos(Math.toRadians(other.latitude)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(h)));
+    }
+}
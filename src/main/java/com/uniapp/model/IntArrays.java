@@ -0,0 +1,33 @@
+package com.uniapp.model;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Length-prefixed {@code int[]} encoding shared by the store and the index
+ * snapshot: a big-endian count followed by the values.
+ */
+public final class IntArrays {
+
+    private IntArrays() {
+    }
+
+    public static void writeInts(int[] values, DataOutput out) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * Reads an array written by {@link #writeInts}. A corrupt count surfaces as
+     * a runtime exception that callers wrap with the offset.
+     */
+    public static int[] readInts(ByteBuffer in) {
+        int[] values = new int[in.getInt()];
+        in.asIntBuffer().get(values);
+        in.position(in.position() + 4 * values.length);
+        return values;
+    }
+}
@@ -0,0 +1,148 @@
+package com.uniapp.model;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deduplicated strings packed into one UTF-8 byte array. A string is
+ * identified by its position in the pool and decoded on access, so the pool
+ * costs two objects however many strings it holds.
+ * <p>
+ * Strings {@linkplain #append appended} later go to a separate tail, so the
+ * packed array is shared by every pool derived from it and only the tail is
+ * copied; {@link UniversityStore} repacks everything once the tail grows.
+ */
+final class StringPool {
+
+    private static final StringPool EMPTY = new StringPool(new byte[0], new int[1], null);
+
+    private final byte[] bytes;
+    private final int[] offsets;
+    /** The appended strings, numbered after the packed ones, or {@code null}. */
+    private final StringPool tail;
+
+    private StringPool(byte[] bytes, int[] offsets, StringPool tail) {
+        this.bytes = bytes;
+        this.offsets = offsets;
+        this.tail = tail;
+    }
+
+    String get(int id) {
+        int packed = offsets.length - 1;
+        if (id >= packed) {
+            return tail.get(id - packed);
+        }
+        int start = offsets[id];
+        return new String(bytes, start, offsets[id + 1] - start, StandardCharsets.UTF_8);
+    }
+
+    /** Returns the encoded length of string {@code id} in bytes. */
+    int length(int id) {
+        int packed = offsets.length - 1;
+        return id >= packed ? tail.length(id - packed) : offsets[id + 1] - offsets[id];
+    }
+
+    int size() {
+        return offsets.length - 1 + (tail == null ? 0 : tail.size());
+    }
+
+    /** Returns the approximate heap footprint of the packed data in bytes. */
+    long byteSize() {
+        return bytes.length + 4L * offsets.length + (tail == null ? 0 : tail.byteSize());
+    }
+
+    /** Returns the number of string bytes held in the tail. */
+    long tailBytes() {
+        return tail == null ? 0 : tail.bytes.length;
+    }
+
+    /**
+     * Returns a pool holding this pool's strings under their existing ids,
+     * followed by {@code values}; value {@code i} gets id {@code size() + i}.
+     * The packed bytes are shared and only the tail is copied, so this pool is
+     * left untouched. Values are not deduplicated against the existing strings.
+     */
+    StringPool append(List<String> values) {
+        return new StringPool(bytes, offsets, (tail == null ? EMPTY : tail).concat(values));
+    }
+
+    /** Returns a tail-less pool of this pool's packed strings followed by {@code values}. */
+    private StringPool concat(List<String> values) {
+        byte[][] encoded = new byte[values.size()][];
+        int length = bytes.length;
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = values.get(i).getBytes(StandardCharsets.UTF_8);
+            length += encoded[i].length;
+        }
+        byte[] grown = Arrays.copyOf(bytes, length);
+        int[] grownOffsets = Arrays.copyOf(offsets, offsets.length + encoded.length);
+        int end = bytes.length;
+        for (int i = 0; i < encoded.length; i++) {
+            System.arraycopy(encoded[i], 0, grown, end, encoded[i].length);
+            end += encoded[i].length;
+            grownOffsets[offsets.length + i] = end;
+        }
+        return new StringPool(grown, grownOffsets, null);
+    }
+
+    /** Writes the packed strings and the tail as one packed pool. */
+    void writeTo(DataOutput out) throws IOException {
+        if (tail == null) {
+            IntArrays.writeInts(offsets, out);
+            out.write(bytes);
+            return;
+        }
+        int[] merged = Arrays.copyOf(offsets, offsets.length + tail.offsets.length - 1);
+        for (int i = 1; i < tail.offsets.length; i++) {
+            merged[offsets.length - 1 + i] = bytes.length + tail.offsets[i];
+        }
+        IntArrays.writeInts(merged, out);
+        out.write(bytes);
+        out.write(tail.bytes);
+    }
+
+    static StringPool readFrom(ByteBuffer in) {
+        int[] offsets = IntArrays.readInts(in);
+        byte[] bytes = new byte[offsets[offsets.length - 1]];
+        in.get(bytes);
+        return new StringPool(bytes, offsets, null);
+    }
+
+    static final class Builder {
+
+        private final Map<String, Integer> ids = new HashMap<>();
+        private byte[] bytes = new byte[1024];
+        private int[] offsets = new int[64];
+        private int size;
+
+        /** Returns the id of {@code value}, adding it if it is new. */
+        int intern(String value) {
+            Integer id = ids.get(value);
+            if (id != null) {
+                return id;
+            }
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            int end = offsets[size];
+            if (end + encoded.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length << 1, end + encoded.length));
+            }
+            System.arraycopy(encoded, 0, bytes, end, encoded.length);
+            if (size + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length << 1);
+            }
+            offsets[++size] = end + encoded.length;
+            ids.put(value, size - 1);
+            return size - 1;
+        }
+
+        StringPool build() {
+            return new StringPool(Arrays.copyOf(bytes, offsets[size]), Arrays.copyOf(offsets, size + 1), null);
+        }
+    }
+}
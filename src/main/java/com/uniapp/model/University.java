@@ -0,0 +1,42 @@
+package com.uniapp.model;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A single institution as published in the university domains dataset.
+ *
+ * @param name          the official institution name
+ * @param country       the country name, e.g. {@code "Greece"}
+ * @param alphaTwoCode  the ISO 3166-1 alpha-2 country code, e.g. {@code "GR"}
+ * @param stateProvince the state or province, or {@code null} when the dataset has none
+ * @param domains       the institution's internet domains
+ * @param webPages      the institution's web page URLs
+ * @param location      the campus coordinates, or {@code null} when unknown
+ */
+public record University(String name,
+                         String country,
+                         String alphaTwoCode,
+                         String stateProvince,
+                         List<String> domains,
+                         List<String> webPages,
+                         GeoPoint location) {
+
+    public University {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(country, "country");
+        domains = domains == null ? List.of() : List.copyOf(domains);
+        webPages = webPages == null ? List.of() : List.copyOf(webPages);
+    }
+
+    /** Creates a university without coordinates, as published in the dataset. */
+    public University(String name, String country, String alphaTwoCode, String stateProvince,
+                      List<String> domains, List<String> webPages) {
+        this(name, country, alphaTwoCode, stateProvince, domains, webPages, null);
+    }
+
+    /** Returns this university with its coordinates replaced by {@code location}. */
+    public University withLocation(GeoPoint location) {
+        return new University(name, country, alphaTwoCode, stateProvince, domains, webPages, location);
+    }
+}
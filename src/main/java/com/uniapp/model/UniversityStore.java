@@ -0,0 +1,593 @@
+package com.uniapp.model;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+/**
+ * Columnar, read-only storage of the university dataset.
+ * <p>
+ * Instead of one {@link University} with seven fields and two lists per record,
+ * the store keeps one primitive array per field. Countries, country codes and
+ * states/provinces have few distinct values and are kept as shared
+ * {@code String} dictionaries indexed by {@code int} codes; names, domains and
+ * web pages are deduplicated into packed UTF-8 {@link StringPool}s; locations
+ * are two columns of fixed-point microdegrees. The whole dataset is therefore
+ * a few dozen objects regardless of its size.
+ * <p>
+ * {@link Row} reads fields in place without materializing a record, and
+ * {@link #asList} and {@link #documents} expose the store as lists of records
+ * created on access.
+ */
+public final class UniversityStore {
+
+    private static final int NONE = -1;
+    /** Microdegree value marking a document without a location. */
+    private static final int NO_LOCATION = Integer.MIN_VALUE;
+    private static final double MICRODEGREES = 1_000_000;
+    /** Pool bytes a patched store may waste before it is repacked, on top of a quarter of the pools. */
+    private static final long REPACK_SLACK = 64 * 1024;
+
+    private final int size;
+    private final int[] names;
+    private final int[] countries;
+    private final int[] alphaTwoCodes;
+    private final int[] stateProvinces;
+    private final int[] domainStarts;
+    private final int[] domains;
+    private final int[] webPageStarts;
+    private final int[] webPages;
+    private final int[] latitudes;
+    private final int[] longitudes;
+    private final String[] values;
+    private final StringPool namePool;
+    private final StringPool linkPool;
+    /** Upper bound on the pool bytes no document refers to any more, left behind by {@link #patch}. */
+    private final long staleBytes;
+
+    private UniversityStore(int size, int[] names, int[] countries, int[] alphaTwoCodes, int[] stateProvinces,
+                            int[] domainStarts, int[] domains, int[] webPageStarts, int[] webPages,
+                            int[] latitudes, int[] longitudes, String[] values, StringPool namePool,
+                            StringPool linkPool, long staleBytes) {
+        this.size = size;
+        this.names = names;
+        this.countries = countries;
+        this.alphaTwoCodes = alphaTwoCodes;
+        this.stateProvinces = stateProvinces;
+        this.domainStarts = domainStarts;
+        this.domains = domains;
+        this.webPageStarts = webPageStarts;
+        this.webPages = webPages;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.values = values;
+        this.namePool = namePool;
+        this.linkPool = linkPool;
+        this.staleBytes = staleBytes;
+    }
+
+    private UniversityStore(Builder builder) {
+        size = builder.size;
+        names = Arrays.copyOf(builder.names, size);
+        countries = Arrays.copyOf(builder.countries, size);
+        alphaTwoCodes = Arrays.copyOf(builder.alphaTwoCodes, size);
+        stateProvinces = Arrays.copyOf(builder.stateProvinces, size);
+        domainStarts = Arrays.copyOf(builder.domainStarts, size + 1);
+        domains = Arrays.copyOf(builder.domains, domainStarts[size]);
+        webPageStarts = Arrays.copyOf(builder.webPageStarts, size + 1);
+        webPages = Arrays.copyOf(builder.webPages, webPageStarts[size]);
+        latitudes = Arrays.copyOf(builder.latitudes, size);
+        longitudes = Arrays.copyOf(builder.longitudes, size);
+        values = builder.values.toArray(new String[0]);
+        namePool = builder.namePool.build();
+        linkPool = builder.linkPool.build();
+        staleBytes = 0;
+    }
+
+    /** Returns a store holding {@code universities} in order. */
+    public static UniversityStore of(List<University> universities) {
+        Builder builder = new Builder();
+        for (University university : universities) {
+            builder.add(university);
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String name(int docId) {
+        return namePool.get(names[docId]);
+    }
+
+    public String country(int docId) {
+        return values[countries[docId]];
+    }
+
+    public String alphaTwoCode(int docId) {
+        return value(alphaTwoCodes[docId]);
+    }
+
+    public String stateProvince(int docId) {
+        return value(stateProvinces[docId]);
+    }
+
+    public int domainCount(int docId) {
+        return domainStarts[docId + 1] - domainStarts[docId];
+    }
+
+    public String domain(int docId, int index) {
+        return linkPool.get(domains[domainStarts[docId] + index]);
+    }
+
+    public int webPageCount(int docId) {
+        return webPageStarts[docId + 1] - webPageStarts[docId];
+    }
+
+    public String webPage(int docId, int index) {
+        return linkPool.get(webPages[webPageStarts[docId] + index]);
+    }
+
+    public boolean hasLocation(int docId) {
+        return latitudes[docId] != NO_LOCATION;
+    }
+
+    /** Returns the latitude of {@code docId} in degrees, if it {@linkplain #hasLocation has a location}. */
+    public double latitude(int docId) {
+        return latitudes[docId] / MICRODEGREES;
+    }
+
+    /** Returns the longitude of {@code docId} in degrees, if it {@linkplain #hasLocation has a location}. */
+    public double longitude(int docId) {
+        return longitudes[docId] / MICRODEGREES;
+    }
+
+    /** Returns the location of {@code docId}, or {@code null} if it has none. */
+    public GeoPoint location(int docId) {
+        return hasLocation(docId) ? new GeoPoint(latitude(docId), longitude(docId)) : null;
+    }
+
+    /** Materializes document {@code docId} as a record. */
+    public University get(int docId) {
+        return new University(name(docId), country(docId), alphaTwoCode(docId), stateProvince(docId),
+                links(domains, domainStarts, docId), links(webPages, webPageStarts, docId), location(docId));
+    }
+
+    /**
+     * Returns a store of {@code size} documents in which document {@code i} is
+     * {@code records.get(i)} where present and this store's document {@code i}
+     * otherwise; every id from {@link #size} up to {@code size} must be present.
+     * This store is left untouched for anyone still reading it: the columns
+     * are copied, which costs time in proportion to the dataset, and new
+     * strings go to the tails of the pools while the packed strings are
+     * shared. Strings of replaced and dropped documents stay in the pools;
+     * once they and the tails outgrow a quarter of the pools, the result is
+     * repacked from its records instead.
+     */
+    public UniversityStore patch(Map<Integer, University> records, int size) {
+        for (int docId : records.keySet()) {
+            if (docId < 0 || docId >= size) {
+                throw new IllegalArgumentException("Document " + docId + " outside 0.." + size);
+            }
+        }
+        for (int docId = this.size; docId < size; docId++) {
+            if (!records.containsKey(docId)) {
+                throw new IllegalArgumentException("No record for new document " + docId);
+            }
+        }
+        Map<String, Integer> valueCodes = new HashMap<>(values.length * 4 / 3 + 1);
+        for (int code = 0; code < values.length; code++) {
+            valueCodes.put(values[code], code);
+        }
+        long stale = staleBytes;
+        for (int docId : records.keySet()) {
+            stale += docId < this.size ? stringBytes(docId) : 0;
+        }
+        for (int docId = size; docId < this.size; docId++) {
+            stale += stringBytes(docId);
+        }
+        List<String> newValues = new ArrayList<>(Arrays.asList(values));
+        Appended newNames = new Appended(namePool.size());
+        Appended newLinks = new Appended(linkPool.size());
+        int[] names = Arrays.copyOf(this.names, size);
+        int[] countries = Arrays.copyOf(this.countries, size);
+        int[] alphaTwoCodes = Arrays.copyOf(this.alphaTwoCodes, size);
+        int[] stateProvinces = Arrays.copyOf(this.stateProvinces, size);
+        int[] latitudes = Arrays.copyOf(this.latitudes, size);
+        int[] longitudes = Arrays.copyOf(this.longitudes, size);
+        records.forEach((docId, university) -> {
+            names[docId] = newNames.id(university.name());
+            countries[docId] = code(university.country(), valueCodes, newValues);
+            alphaTwoCodes[docId] = code(university.alphaTwoCode(), valueCodes, newValues);
+            stateProvinces[docId] = code(university.stateProvince(), valueCodes, newValues);
+            GeoPoint location = university.location();
+            latitudes[docId] = location == null ? NO_LOCATION : (int) Math.round(location.latitude() * MICRODEGREES);
+            longitudes[docId] = location == null ? NO_LOCATION : (int) Math.round(location.longitude() * MICRODEGREES);
+        });
+        int[] domainStarts = new int[size + 1];
+        int[] domains = patchLinks(this.domains, this.domainStarts, domainStarts, records, University::domains,
+                newLinks);
+        int[] webPageStarts = new int[size + 1];
+        int[] webPages = patchLinks(this.webPages, this.webPageStarts, webPageStarts, records, University::webPages,
+                newLinks);
+        UniversityStore patched = new UniversityStore(size, names, countries, alphaTwoCodes, stateProvinces,
+                domainStarts, domains, webPageStarts, webPages, latitudes, longitudes,
+                newValues.toArray(new String[0]), newNames.appendTo(namePool), newLinks.appendTo(linkPool), stale);
+        return patched.wasted() > patched.poolBytes() / 4 + REPACK_SLACK ? of(patched.asList()) : patched;
+    }
+
+    /** Returns the pool bytes of the name, domains and web pages of {@code docId}. */
+    private long stringBytes(int docId) {
+        long bytes = namePool.length(names[docId]);
+        for (int i = domainStarts[docId]; i < domainStarts[docId + 1]; i++) {
+            bytes += linkPool.length(domains[i]);
+        }
+        for (int i = webPageStarts[docId]; i < webPageStarts[docId + 1]; i++) {
+            bytes += linkPool.length(webPages[i]);
+        }
+        return bytes;
+    }
+
+    /** Returns the pool bytes a repack would drop or move out of the tails. */
+    private long wasted() {
+        return staleBytes + namePool.tailBytes() + linkPool.tailBytes();
+    }
+
+    private long poolBytes() {
+        return namePool.byteSize() + linkPool.byteSize();
+    }
+
+    private static int code(String value, Map<String, Integer> codes, List<String> values) {
+        if (value == null) {
+            return NONE;
+        }
+        return codes.computeIfAbsent(value, v -> {
+            values.add(v);
+            return values.size() - 1;
+        });
+    }
+
+    /** Copies the flattened link ids of unchanged documents and appends those of {@code records}. */
+    private static int[] patchLinks(int[] ids, int[] starts, int[] newStarts, Map<Integer, University> records,
+                                    Function<University, List<String>> field, Appended pool) {
+        int size = newStarts.length - 1;
+        int[] out = new int[Math.max(16, ids.length)];
+        int n = 0;
+        for (int docId = 0; docId < size; docId++) {
+            University university = records.get(docId);
+            int count = university != null ? field.apply(university).size() : starts[docId + 1] - starts[docId];
+            if (n + count > out.length) {
+                out = Arrays.copyOf(out, Math.max(out.length << 1, n + count));
+            }
+            if (university != null) {
+                for (String link : field.apply(university)) {
+                    out[n++] = pool.id(link);
+                }
+            } else {
+                System.arraycopy(ids, starts[docId], out, n, count);
+                n += count;
+            }
+            newStarts[docId + 1] = n;
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /** Returns a list view whose element {@code i} is {@code get(i)}. */
+    public List<University> asList() {
+        return new RecordList(this);
+    }
+
+    /** Returns a list view whose element {@code i} is {@code get(docIds[i])}. */
+    public List<University> documents(int[] docIds) {
+        return new DocumentList(this, docIds);
+    }
+
+    /** Returns a reusable cursor positioned on the first document. */
+    public Row row() {
+        return new Row();
+    }
+
+    /** Returns the approximate heap footprint of the store in bytes, excluding the small dictionaries. */
+    public long byteSize() {
+        long ints = 6L * size + domainStarts.length + domains.length + webPageStarts.length + webPages.length;
+        return 4 * ints + namePool.byteSize() + linkPool.byteSize();
+    }
+
+    /**
+     * Writes the columns in the layout read by {@link #readFrom}. A patched
+     * store is repacked first so unreferenced strings are not saved.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        if (staleBytes > 0) {
+            of(asList()).writeTo(out);
+            return;
+        }
+        out.writeInt(size);
+        IntArrays.writeInts(names, out);
+        IntArrays.writeInts(countries, out);
+        IntArrays.writeInts(alphaTwoCodes, out);
+        IntArrays.writeInts(stateProvinces, out);
+        IntArrays.writeInts(domainStarts, out);
+        IntArrays.writeInts(domains, out);
+        IntArrays.writeInts(webPageStarts, out);
+        IntArrays.writeInts(webPages, out);
+        IntArrays.writeInts(latitudes, out);
+        IntArrays.writeInts(longitudes, out);
+        out.writeInt(values.length);
+        for (String value : values) {
+            writeString(value, out);
+        }
+        namePool.writeTo(out);
+        linkPool.writeTo(out);
+    }
+
+    /**
+     * Reads a store written by {@link #writeTo}, advancing {@code in} past it.
+     * The columns are bulk-copied out of the buffer, so no record is decoded.
+     */
+    public static UniversityStore readFrom(ByteBuffer in) throws IOException {
+        try {
+            int size = in.getInt();
+            int[] names = IntArrays.readInts(in);
+            int[] countries = IntArrays.readInts(in);
+            int[] alphaTwoCodes = IntArrays.readInts(in);
+            int[] stateProvinces = IntArrays.readInts(in);
+            int[] domainStarts = IntArrays.readInts(in);
+            int[] domains = IntArrays.readInts(in);
+            int[] webPageStarts = IntArrays.readInts(in);
+            int[] webPages = IntArrays.readInts(in);
+            int[] latitudes = IntArrays.readInts(in);
+            int[] longitudes = IntArrays.readInts(in);
+            String[] values = new String[in.getInt()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = readString(in);
+            }
+            return new UniversityStore(size, names, countries, alphaTwoCodes, stateProvinces, domainStarts,
+                    domains, webPageStarts, webPages, latitudes, longitudes, values, StringPool.readFrom(in),
+                    StringPool.readFrom(in), 0);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt university store at offset " + in.position(), e);
+        }
+    }
+
+    private static void writeString(String value, DataOutput out) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private String value(int code) {
+        return code == NONE ? null : values[code];
+    }
+
+    private List<String> links(int[] ids, int[] starts, int docId) {
+        int from = starts[docId];
+        int to = starts[docId + 1];
+        List<String> links = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            links.add(linkPool.get(ids[i]));
+        }
+        return links;
+    }
+
+    /**
+     * Flyweight over one document at a time. A renderer keeps a single row and
+     * moves it with {@link #at} instead of holding a record per result.
+     */
+    public final class Row {
+
+        private int docId;
+
+        private Row() {
+        }
+
+        /** Positions the row on {@code docId} and returns it. */
+        public Row at(int docId) {
+            this.docId = docId;
+            return this;
+        }
+
+        public int docId() {
+            return docId;
+        }
+
+        public String name() {
+            return UniversityStore.this.name(docId);
+        }
+
+        public String country() {
+            return UniversityStore.this.country(docId);
+        }
+
+        public String alphaTwoCode() {
+            return UniversityStore.this.alphaTwoCode(docId);
+        }
+
+        public String stateProvince() {
+            return UniversityStore.this.stateProvince(docId);
+        }
+
+        public int domainCount() {
+            return UniversityStore.this.domainCount(docId);
+        }
+
+        public String domain(int index) {
+            return UniversityStore.this.domain(docId, index);
+        }
+
+        public int webPageCount() {
+            return UniversityStore.this.webPageCount(docId);
+        }
+
+        public String webPage(int index) {
+            return UniversityStore.this.webPage(docId, index);
+        }
+
+        public GeoPoint location() {
+            return UniversityStore.this.location(docId);
+        }
+    }
+
+    /** Strings to append to a pool by {@link #patch}, each under the id it will have in the grown pool. */
+    private static final class Appended {
+
+        private final int firstId;
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        Appended(int firstId) {
+            this.firstId = firstId;
+        }
+
+        int id(String value) {
+            return ids.computeIfAbsent(value, v -> {
+                values.add(v);
+                return firstId + values.size() - 1;
+            });
+        }
+
+        StringPool appendTo(StringPool pool) {
+            return values.isEmpty() ? pool : pool.append(values);
+        }
+    }
+
+    private static final class DocumentList extends AbstractList<University> implements RandomAccess {
+
+        private final UniversityStore store;
+        private final int[] docIds;
+
+        DocumentList(UniversityStore store, int[] docIds) {
+            this.store = store;
+            this.docIds = docIds;
+        }
+
+        @Override
+        public University get(int index) {
+            return store.get(docIds[index]);
+        }
+
+        @Override
+        public int size() {
+            return docIds.length;
+        }
+    }
+
+    private static final class RecordList extends AbstractList<University> implements RandomAccess {
+
+        private final UniversityStore store;
+
+        RecordList(UniversityStore store) {
+            this.store = store;
+        }
+
+        @Override
+        public University get(int index) {
+            if (index < 0 || index >= store.size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return store.get(index);
+        }
+
+        @Override
+        public int size() {
+            return store.size;
+        }
+    }
+
+    /**
+     * Appends records one at a time. {@link #build} may be called repeatedly;
+     * each call returns an independent store of the records added so far.
+     */
+    public static final class Builder {
+
+        private int size;
+        private int[] names = new int[64];
+        private int[] countries = new int[64];
+        private int[] alphaTwoCodes = new int[64];
+        private int[] stateProvinces = new int[64];
+        private int[] domainStarts = new int[65];
+        private int[] domains = new int[64];
+        private int[] webPageStarts = new int[65];
+        private int[] webPages = new int[64];
+        private int[] latitudes = new int[64];
+        private int[] longitudes = new int[64];
+        private final Map<String, Integer> valueCodes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private final StringPool.Builder namePool = new StringPool.Builder();
+        private final StringPool.Builder linkPool = new StringPool.Builder();
+
+        /** Appends {@code university} and returns its document id. */
+        public int add(University university) {
+            if (size == names.length) {
+                int capacity = size << 1;
+                names = Arrays.copyOf(names, capacity);
+                countries = Arrays.copyOf(countries, capacity);
+                alphaTwoCodes = Arrays.copyOf(alphaTwoCodes, capacity);
+                stateProvinces = Arrays.copyOf(stateProvinces, capacity);
+                domainStarts = Arrays.copyOf(domainStarts, capacity + 1);
+                webPageStarts = Arrays.copyOf(webPageStarts, capacity + 1);
+                latitudes = Arrays.copyOf(latitudes, capacity);
+                longitudes = Arrays.copyOf(longitudes, capacity);
+            }
+            names[size] = namePool.intern(university.name());
+            countries[size] = code(university.country());
+            alphaTwoCodes[size] = code(university.alphaTwoCode());
+            stateProvinces[size] = code(university.stateProvince());
+            domains = appendLinks(university.domains(), domains, domainStarts);
+            webPages = appendLinks(university.webPages(), webPages, webPageStarts);
+            GeoPoint location = university.location();
+            latitudes[size] = location == null ? NO_LOCATION : (int) Math.round(location.latitude() * MICRODEGREES);
+            longitudes[size] = location == null ? NO_LOCATION : (int) Math.round(location.longitude() * MICRODEGREES);
+            return size++;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public UniversityStore build() {
+            return new UniversityStore(this);
+        }
+
+        private int code(String value) {
+            if (value == null) {
+                return NONE;
+            }
+            Integer code = valueCodes.get(value);
+            if (code == null) {
+                code = values.size();
+                values.add(value);
+                valueCodes.put(value, code);
+            }
+            return code;
+        }
+
+        private int[] appendLinks(List<String> links, int[] ids, int[] starts) {
+            int start = starts[size];
+            if (start + links.size() > ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(ids.length << 1, start + links.size()));
+            }
+            for (String link : links) {
+                ids[start++] = linkPool.intern(link);
+            }
+            starts[size + 1] = start;
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.uniapp.search;
+
+import com.uniapp.model.University;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The documents that differ between an engine and the engine patched from
+ * it: document {@code docIds[i]} was {@code before[i]} and becomes
+ * {@code after[i]}, where {@code null} stands for a document that does not
+ * exist on that side. Every other document is the same on both sides.
+ *
+ * @param docIds        the changed ids in ascending order
+ * @param before        the records before the patch
+ * @param after         the records after the patch
+ * @param documentCount the number of documents after the patch
+ */
+record DocChanges(int[] docIds, University[] before, University[] after, int documentCount) {
+
+    /** Describes replacing the documents of {@code universities} by {@code records} and truncating to {@code size}. */
+    static DocChanges of(List<University> universities, Map<Integer, University> records, int size) {
+        Set<Integer> ids = new TreeSet<>(records.keySet());
+        for (int docId = size; docId < universities.size(); docId++) {
+            ids.add(docId);
+        }
+        int[] docIds = new int[ids.size()];
+        University[] before = new University[docIds.length];
+        University[] after = new University[docIds.length];
+        int i = 0;
+        for (int docId : ids) {
+            docIds[i] = docId;
+            before[i] = docId < universities.size() ? universities.get(docId) : null;
+            after[i] = records.get(docId);
+            i++;
+        }
+        return new DocChanges(docIds, before, after, size);
+    }
+
+    /** Returns the terms of {@code before[i]} that {@code after[i]} does not have. */
+    List<String> removedTerms(int i) {
+        return difference(before[i], after[i]);
+    }
+
+    /** Returns the terms of {@code after[i]} that {@code before[i]} does not have. */
+    List<String> addedTerms(int i) {
+        return difference(after[i], before[i]);
+    }
+
+    private static List<String> difference(University from, University minus) {
+        if (from == null) {
+            return List.of();
+        }
+        Set<String> excluded = new HashSet<>();
+        if (minus != null) {
+            Tokenizer.tokenize(minus, excluded::add);
+        }
+        Set<String> seen = new HashSet<>();
+        List<String> terms = new ArrayList<>();
+        Tokenizer.tokenize(from, term -> {
+            if (!excluded.contains(term) && seen.add(term)) {
+                terms.add(term);
+            }
+        });
+        return terms;
+    }
+}
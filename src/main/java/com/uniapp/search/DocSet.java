@@ -0,0 +1,98 @@
+package com.uniapp.search;
+
+import java.util.Arrays;
+
+/**
+ * Immutable compressed set of document ids.
+ * <p>
+ * Like a single Roaring container, a set picks its representation from its
+ * density: a sorted {@code int[]} while it holds fewer than one id per 32
+ * documents, a {@code long[]} bitmap above that. Either way its size is at
+ * most {@code universe / 8} bytes, and the operations below work on plain
+ * bitmaps so sets of both kinds combine with search hits word by word.
+ */
+public final class DocSet {
+
+    private final int[] ids;
+    private final long[] bits;
+    private final int cardinality;
+
+    private DocSet(int[] ids, long[] bits, int cardinality) {
+        this.ids = ids;
+        this.bits = bits;
+        this.cardinality = cardinality;
+    }
+
+    /** Returns a set of the sorted, duplicate-free {@code ids}, all below {@code universe}. */
+    public static DocSet of(int[] ids, int universe) {
+        if (ids.length < universe >>> 5) {
+            return new DocSet(ids, null, ids.length);
+        }
+        return new DocSet(null, bitmap(ids, universe), ids.length);
+    }
+
+    /** Returns the number of {@code long} words in a bitmap over {@code universe} documents. */
+    public static int words(int universe) {
+        return (universe + 63) >>> 6;
+    }
+
+    /** Returns a bitmap over {@code universe} documents with the sorted {@code ids} set. */
+    public static long[] bitmap(int[] ids, int universe) {
+        long[] bits = new long[words(universe)];
+        for (int id : ids) {
+            bits[id >>> 6] |= 1L << id;
+        }
+        return bits;
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean contains(int id) {
+        if (bits != null) {
+            int word = id >>> 6;
+            return word < bits.length && (bits[word] & (1L << id)) != 0;
+        }
+        return Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    /**
+     * Sets the bits of this set's ids in {@code target}. Sets shared between
+     * patched engines may have been built over a larger universe; words past
+     * the end of {@code target} hold no ids and are ignored.
+     */
+    public void orInto(long[] target) {
+        if (bits != null) {
+            for (int w = 0; w < Math.min(bits.length, target.length); w++) {
+                target[w] |= bits[w];
+            }
+        } else {
+            for (int id : ids) {
+                target[id >>> 6] |= 1L << id;
+            }
+        }
+    }
+
+    /** Returns how many of this set's ids are set in {@code mask}. */
+    public int countIn(long[] mask) {
+        int count = 0;
+        if (bits != null) {
+            for (int w = 0; w < Math.min(bits.length, mask.length); w++) {
+                count += Long.bitCount(bits[w] & mask[w]);
+            }
+        } else {
+            for (int id : ids) {
+                if ((mask[id >>> 6] & (1L << id)) != 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /** Returns the ids of this set in ascending order. */
+    public int[] toArray() {
+        return bits != null ? Postings.fromBitmap(bits) : ids.clone();
+    }
+}
@@ -0,0 +1,38 @@
+package com.uniapp.search;
+
+import com.uniapp.model.University;
+import com.uniapp.model.UniversityStore;
+
+import java.util.function.Function;
+
+/**
+ * A field universities can be filtered and counted by.
+ */
+public enum Facet {
+
+    COUNTRY(University::country, UniversityStore::country),
+    STATE_PROVINCE(University::stateProvince, UniversityStore::stateProvince);
+
+    private final Function<University, String> field;
+    private final StoreField storeField;
+
+    Facet(Function<University, String> field, StoreField storeField) {
+        this.field = field;
+        this.storeField = storeField;
+    }
+
+    /** Returns the value of this facet for {@code university}, or {@code null} if it has none. */
+    public String valueOf(University university) {
+        return field.apply(university);
+    }
+
+    /** Returns the value of this facet for document {@code docId} of {@code store} without materializing it. */
+    public String valueOf(UniversityStore store, int docId) {
+        return storeField.get(store, docId);
+    }
+
+    @FunctionalInterface
+    private interface StoreField {
+        String get(UniversityStore store, int docId);
+    }
+}
@@ -0,0 +1,192 @@
+package com.uniapp.search;
+
+import com.uniapp.model.University;
+import com.uniapp.model.UniversityStore;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Precomputed {@link DocSet} per value of every {@link Facet}.
+ * <p>
+ * Filtering ORs the sets of the selected values of each facet into a bitmap
+ * and ANDs the facets together, so applying a selection never looks at the
+ * documents themselves. Facet counts for a result are the popcounts of each
+ * value's set masked by the result's bitmap.
+ */
+public final class FacetIndex {
+
+    private final int documentCount;
+    private final Map<Facet, Map<String, DocSet>> sets;
+
+    private FacetIndex(int documentCount, Map<Facet, Map<String, DocSet>> sets) {
+        this.documentCount = documentCount;
+        this.sets = sets;
+    }
+
+    /** Builds the facet sets where document {@code i} is {@code universities.get(i)}. */
+    public static FacetIndex build(List<University> universities) {
+        return build(universities.size(), (facet, docId) -> facet.valueOf(universities.get(docId)));
+    }
+
+    /** Builds the facet sets of the documents in {@code store}, reading its columns in place. */
+    public static FacetIndex build(UniversityStore store) {
+        return build(store.size(), (facet, docId) -> facet.valueOf(store, docId));
+    }
+
+    private static FacetIndex build(int documentCount, BiFunction<Facet, Integer, String> values) {
+        Map<Facet, Map<String, DocSet>> sets = new EnumMap<>(Facet.class);
+        for (Facet facet : Facet.values()) {
+            Map<String, IntArrayList> ids = new HashMap<>();
+            for (int docId = 0; docId < documentCount; docId++) {
+                String value = values.apply(facet, docId);
+                if (value != null) {
+                    ids.computeIfAbsent(value, v -> new IntArrayList()).add(docId);
+                }
+            }
+            Map<String, DocSet> docSets = new HashMap<>(ids.size() * 4 / 3 + 1);
+            ids.forEach((value, list) -> docSets.put(value, DocSet.of(list.toArray(), documentCount)));
+            sets.put(facet, docSets);
+        }
+        return new FacetIndex(documentCount, sets);
+    }
+
+    /**
+     * Returns the facet sets with {@code changes} applied. Only the sets of
+     * values whose documents changed are rebuilt; the rest are shared.
+     */
+    FacetIndex patch(DocChanges changes) {
+        Map<Facet, Map<String, DocSet>> patched = new EnumMap<>(Facet.class);
+        int[] docIds = changes.docIds();
+        for (Facet facet : Facet.values()) {
+            Map<String, IntArrayList> removed = new HashMap<>();
+            Map<String, IntArrayList> added = new HashMap<>();
+            for (int i = 0; i < docIds.length; i++) {
+                String before = changes.before()[i] == null ? null : facet.valueOf(changes.before()[i]);
+                String after = changes.after()[i] == null ? null : facet.valueOf(changes.after()[i]);
+                if (Objects.equals(before, after)) {
+                    continue;
+                }
+                if (before != null) {
+                    removed.computeIfAbsent(before, v -> new IntArrayList()).add(docIds[i]);
+                }
+                if (after != null) {
+                    added.computeIfAbsent(after, v -> new IntArrayList()).add(docIds[i]);
+                }
+            }
+            if (removed.isEmpty() && added.isEmpty()) {
+                patched.put(facet, sets.get(facet));
+                continue;
+            }
+            Map<String, DocSet> docSets = new HashMap<>(sets.get(facet));
+            Set<String> values = new HashSet<>(removed.keySet());
+            values.addAll(added.keySet());
+            for (String value : values) {
+                DocSet current = docSets.get(value);
+                int[] ids = current == null ? Postings.EMPTY : current.toArray();
+                IntArrayList gone = removed.get(value);
+                IntArrayList come = added.get(value);
+                ids = Postings.merge(Postings.subtract(ids, gone == null ? Postings.EMPTY : gone.toArray()),
+                        come == null ? Postings.EMPTY : come.toArray());
+                if (ids.length == 0) {
+                    docSets.remove(value);
+                } else {
+                    docSets.put(value, DocSet.of(ids, changes.documentCount()));
+                }
+            }
+            patched.put(facet, docSets);
+        }
+        return new FacetIndex(changes.documentCount(), patched);
+    }
+
+    /** Returns the documents whose {@code facet} equals {@code value}, or {@code null} if there are none. */
+    public DocSet docs(Facet facet, String value) {
+        return sets.get(facet).get(value);
+    }
+
+    /** Returns the distinct values of {@code facet}. */
+    public Set<String> values(Facet facet) {
+        return sets.get(facet).keySet();
+    }
+
+    /** Returns a bitmap of the documents matching {@code selection}. */
+    public long[] mask(FacetSelection selection) {
+        long[] mask = null;
+        for (Map.Entry<Facet, Set<String>> entry : selection.values().entrySet()) {
+            long[] bits = new long[DocSet.words(documentCount)];
+            for (String value : entry.getValue()) {
+                DocSet set = docs(entry.getKey(), value);
+                if (set != null) {
+                    set.orInto(bits);
+                }
+            }
+            if (mask == null) {
+                mask = bits;
+            } else {
+                for (int w = 0; w < mask.length; w++) {
+                    mask[w] &= bits[w];
+                }
+            }
+        }
+        if (mask == null) {
+            mask = new long[DocSet.words(documentCount)];
+            for (int docId = 0; docId < documentCount; docId++) {
+                mask[docId >>> 6] |= 1L << docId;
+            }
+        }
+        return mask;
+    }
+
+    /** Returns the ids in {@code hits} that match {@code selection}. */
+    public int[] filter(int[] hits, FacetSelection selection) {
+        if (selection.isEmpty()) {
+            return hits;
+        }
+        long[] mask = mask(selection);
+        long[] bits = DocSet.bitmap(hits, documentCount);
+        for (int w = 0; w < bits.length; w++) {
+            bits[w] &= mask[w];
+        }
+        return Postings.fromBitmap(bits);
+    }
+
+    /** Returns {@link #counts(Facet, int[])} for every facet. */
+    public Map<Facet, Map<String, Integer>> counts(int[] hits) {
+        Map<Facet, Map<String, Integer>> counts = new EnumMap<>(Facet.class);
+        for (Facet facet : Facet.values()) {
+            counts.put(facet, counts(facet, hits));
+        }
+        return counts;
+    }
+
+    /**
+     * Returns how many of {@code hits} have each value of {@code facet},
+     * omitting values with no hits, ordered by descending count.
+     */
+    public Map<String, Integer> counts(Facet facet, int[] hits) {
+        long[] bits = DocSet.bitmap(hits, documentCount);
+        List<Map.Entry<String, Integer>> counts = new ArrayList<>();
+        for (Map.Entry<String, DocSet> entry : sets.get(facet).entrySet()) {
+            int count = entry.getValue().countIn(bits);
+            if (count > 0) {
+                counts.add(Map.entry(entry.getKey(), count));
+            }
+        }
+        counts.sort((a, b) -> a.getValue().equals(b.getValue())
+                ? a.getKey().compareTo(b.getKey())
+                : Integer.compare(b.getValue(), a.getValue()));
+        Map<String, Integer> result = new LinkedHashMap<>(counts.size() * 4 / 3 + 1);
+        for (Map.Entry<String, Integer> entry : counts) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,40 @@
+package com.uniapp.search;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The facet values a user has selected. Values of the same facet are
+ * alternatives; different facets must all match. A facet without selected
+ * values does not constrain the results.
+ *
+ * @param values the selected values per facet
+ */
+public record FacetSelection(Map<Facet, Set<String>> values) {
+
+    /** The selection that matches every document. */
+    public static final FacetSelection NONE = new FacetSelection(Map.of());
+
+    public FacetSelection {
+        Map<Facet, Set<String>> copy = new EnumMap<>(Facet.class);
+        values.forEach((facet, selected) -> {
+            if (!selected.isEmpty()) {
+                copy.put(facet, Set.copyOf(selected));
+            }
+        });
+        values = Map.copyOf(copy);
+    }
+
+    /** Returns a selection with {@code facet} restricted to {@code selected}, replacing earlier values. */
+    public FacetSelection with(Facet facet, Set<String> selected) {
+        Map<Facet, Set<String>> next = new EnumMap<>(Facet.class);
+        next.putAll(values);
+        next.put(facet, selected);
+        return new FacetSelection(next);
+    }
+
+    public boolean isEmpty() {
+        return values.isEmpty();
+    }
+}
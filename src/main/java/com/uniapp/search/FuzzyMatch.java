@@ -0,0 +1,11 @@
+package com.uniapp.search;
+
+/**
+ * An approximate match produced by {@link FuzzyMatcher}.
+ *
+ * @param docId    the matching document
+ * @param distance the summed edit distance of the query terms to their closest
+ *                 terms in the document; {@code 0} for an exact (prefix) match
+ */
+public record FuzzyMatch(int docId, int distance) {
+}
@@ -0,0 +1,470 @@
+package com.uniapp.search;
+
+import com.uniapp.model.IntArrays;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Typo-tolerant matching over the terms of an {@link InvertedIndex}.
+ * <p>
+ * Every dictionary term is split into padded trigrams, and each trigram maps
+ * to the sorted ids of the terms containing it. A misspelled query term is
+ * looked up by counting shared trigrams: one edit changes at most four
+ * trigrams (a transposition touches four, other edits three), so terms sharing
+ * fewer than {@code grams - 4 * maxEdits} trigrams cannot be within range and
+ * are never compared. The surviving candidates are verified with a bounded
+ * edit distance that stops as soon as a row exceeds the limit.
+ * <p>
+ * Document matching then works as in {@link InvertedIndex#search}: each query
+ * term contributes the union of its close terms' postings and the per-term
+ * results are intersected.
+ */
+public final class FuzzyMatcher {
+
+    private static final char PAD = '\u0000';
+
+    /**
+     * Per-thread counters of shared trigrams indexed by term id, all zero
+     * between uses. Reused across query terms and matchers instead of
+     * allocating one counter per dictionary term for every query term.
+     */
+    private static final ThreadLocal<int[]> SHARED = ThreadLocal.withInitial(() -> new int[0]);
+
+    private final InvertedIndex index;
+    private final long[] grams;
+    private final int[][] gramTerms;
+
+    private FuzzyMatcher(InvertedIndex index, long[] grams, int[][] gramTerms) {
+        this.index = index;
+        this.grams = grams;
+        this.gramTerms = gramTerms;
+    }
+
+    /**
+     * Builds the trigram dictionary over the terms of {@code index}. Large
+     * dictionaries are split into term ranges processed in parallel on the
+     * common fork-join pool and merged by gram, as in {@link InvertedIndex#build}.
+     */
+    public static FuzzyMatcher build(InvertedIndex index) {
+        Segment segment = ForkJoinPool.commonPool().invoke(new ShardTask(index, 0, index.termCount()));
+        return new FuzzyMatcher(index, segment.grams, segment.gramTerms);
+    }
+
+    /**
+     * Returns a matcher over the patched index. If the dictionary did not
+     * change, the trigram lists are shared; otherwise their term ids are
+     * renumbered, dropped terms removed and the trigrams of new terms added.
+     * Only lists holding a renumbered term are copied.
+     */
+    FuzzyMatcher patch(InvertedIndex.Patch patch) {
+        InvertedIndex next = patch.index();
+        int[] termIds = patch.termIds();
+        if (termIds == null) {
+            return new FuzzyMatcher(next, grams, gramTerms);
+        }
+        int stable = 0;
+        while (stable < termIds.length && termIds[stable] == stable) {
+            stable++;
+        }
+        boolean[] existing = new boolean[next.termCount()];
+        for (int termId : termIds) {
+            if (termId >= 0) {
+                existing[termId] = true;
+            }
+        }
+        Map<Long, IntArrayList> added = new HashMap<>();
+        long[] scratch = new long[16];
+        for (int termId = 0; termId < existing.length; termId++) {
+            if (!existing[termId]) {
+                String term = next.term(termId);
+                scratch = trigrams(term, scratch);
+                for (int i = 0; i < term.length() + 2; i++) {
+                    added.computeIfAbsent(scratch[i], g -> new IntArrayList()).addIfNotLast(termId);
+                }
+            }
+        }
+        long[] addedGrams = new long[added.size()];
+        int a = 0;
+        for (Long gram : added.keySet()) {
+            addedGrams[a++] = gram;
+        }
+        Arrays.sort(addedGrams);
+
+        long[] mergedGrams = new long[grams.length + addedGrams.length];
+        int[][] mergedTerms = new int[mergedGrams.length][];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < grams.length || j < addedGrams.length) {
+            long gram;
+            int[] terms;
+            if (j == addedGrams.length || (i < grams.length && grams[i] < addedGrams[j])) {
+                gram = grams[i];
+                terms = renumber(gramTerms[i++], termIds, stable);
+            } else if (i == grams.length || grams[i] > addedGrams[j]) {
+                gram = addedGrams[j];
+                terms = added.get(addedGrams[j++]).toArray();
+            } else {
+                gram = grams[i];
+                terms = Postings.merge(renumber(gramTerms[i++], termIds, stable), added.get(addedGrams[j++]).toArray());
+            }
+            if (terms.length > 0) {
+                mergedGrams[n] = gram;
+                mergedTerms[n++] = terms;
+            }
+        }
+        return new FuzzyMatcher(next, Arrays.copyOf(mergedGrams, n), Arrays.copyOf(mergedTerms, n));
+    }
+
+    /** Maps ascending old term ids to their new ids, which stay ascending, dropping removed terms. */
+    private static int[] renumber(int[] terms, int[] termIds, int stable) {
+        if (terms.length == 0 || terms[terms.length - 1] < stable) {
+            return terms;
+        }
+        int[] out = new int[terms.length];
+        int n = 0;
+        for (int termId : terms) {
+            int mapped = termIds[termId];
+            if (mapped >= 0) {
+                out[n++] = mapped;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(grams.length);
+        for (long gram : grams) {
+            out.writeLong(gram);
+        }
+        for (int[] terms : gramTerms) {
+            IntArrays.writeInts(terms, out);
+        }
+    }
+
+    static FuzzyMatcher readFrom(ByteBuffer in, InvertedIndex index) {
+        long[] grams = new long[in.getInt()];
+        in.asLongBuffer().get(grams);
+        in.position(in.position() + 8 * grams.length);
+        int[][] gramTerms = new int[grams.length][];
+        for (int i = 0; i < grams.length; i++) {
+            gramTerms[i] = IntArrays.readInts(in);
+        }
+        return new FuzzyMatcher(index, grams, gramTerms);
+    }
+
+    /**
+     * Returns up to {@code limit} documents matching every term of
+     * {@code query} exactly, by prefix, or within {@link #maxEdits} edits,
+     * ordered by increasing total distance and then by document id.
+     */
+    public List<FuzzyMatch> match(String query, int limit) {
+        return match(Tokenizer.tokenizeQuery(query), limit);
+    }
+
+    /** Same as {@link #match(String, int)} for a query already tokenized into {@code queryTerms}. */
+    public List<FuzzyMatch> match(List<String> queryTerms, int limit) {
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // byDistance[t][d] holds the documents whose closest term to query term t is d edits away.
+        int[][][] byDistance = new int[queryTerms.size()][][];
+        List<int[]> lists = new ArrayList<>(queryTerms.size());
+        for (int t = 0; t < queryTerms.size(); t++) {
+            byDistance[t] = expand(queryTerms.get(t));
+            int[] hits = Postings.union(byDistance[t], byDistance[t].length, index.documentCount());
+            if (hits.length == 0) {
+                return List.of();
+            }
+            lists.add(hits);
+        }
+        lists.sort((a, b) -> Integer.compare(a.length, b.length));
+        int[] candidates = lists.get(0);
+        for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+            candidates = Postings.intersect(candidates, lists.get(i));
+        }
+
+        List<FuzzyMatch> matches = new ArrayList<>(candidates.length);
+        for (int docId : candidates) {
+            int distance = 0;
+            for (int[][] levels : byDistance) {
+                int d = 0;
+                while (Arrays.binarySearch(levels[d], docId) < 0) {
+                    d++;
+                }
+                distance += d;
+            }
+            matches.add(new FuzzyMatch(docId, distance));
+        }
+        matches.sort((a, b) -> a.distance() != b.distance()
+                ? Integer.compare(a.distance(), b.distance())
+                : Integer.compare(a.docId(), b.docId()));
+        return matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : matches;
+    }
+
+    /** Returns the documents with a term that {@code queryTerm} prefixes or is within {@link #maxEdits} edits of. */
+    int[] near(String queryTerm) {
+        int[][] levels = expand(queryTerm);
+        return Postings.union(levels, levels.length, index.documentCount());
+    }
+
+    /**
+     * Returns the number of edits tolerated for a query term of the given
+     * length. Short terms get fewer edits so the trigram filter stays selective.
+     */
+    static int maxEdits(int length) {
+        if (length <= 2) {
+            return 0;
+        }
+        return length <= 6 ? 1 : 2;
+    }
+
+    /**
+     * Returns, for each distance {@code d} up to {@link #maxEdits}, the documents
+     * whose closest term to {@code queryTerm} is exactly {@code d} edits away.
+     * Prefix matches count as distance zero.
+     */
+    private int[][] expand(String queryTerm) {
+        String[] spellings = TermNormalizer.spellings(queryTerm);
+        if (spellings.length == 1) {
+            return expandSpelling(queryTerm);
+        }
+        // Both spellings have the same length and so the same levels; a document keeps its closer one.
+        int[][] levels = expandSpelling(spellings[0]);
+        int[][] other = expandSpelling(spellings[1]);
+        int[] seen = Postings.EMPTY;
+        for (int d = 0; d < levels.length; d++) {
+            int[] level = Postings.subtract(Postings.merge(levels[d], other[d]), seen);
+            seen = Postings.merge(seen, level);
+            levels[d] = level;
+        }
+        return levels;
+    }
+
+    private int[][] expandSpelling(String queryTerm) {
+        int max = maxEdits(queryTerm.length());
+        int[] exact = index.prefix(queryTerm);
+        if (max == 0) {
+            return new int[][] {exact};
+        }
+        List<List<int[]>> levels = new ArrayList<>(max + 1);
+        for (int d = 0; d <= max; d++) {
+            levels.add(new ArrayList<>());
+        }
+        levels.get(0).add(exact);
+
+        int n = queryTerm.length() + 2;
+        long[] queryGrams = trigrams(queryTerm, new long[n]);
+        Arrays.sort(queryGrams, 0, n);
+        int[] shared = sharedCounts(index.termCount());
+        IntArrayList touched = new IntArrayList();
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (i > 0 && queryGrams[i] == queryGrams[i - 1]) {
+                continue;
+            }
+            distinct++;
+            int g = Arrays.binarySearch(grams, queryGrams[i]);
+            if (g < 0) {
+                continue;
+            }
+            for (int termId : gramTerms[g]) {
+                if (shared[termId]++ == 0) {
+                    touched.add(termId);
+                }
+            }
+        }
+        // Counts are of distinct grams, so the bound must be too; each edit destroys at most four of them.
+        int minShared = distinct - 4 * max;
+        for (int i = 0; i < touched.size(); i++) {
+            int termId = touched.get(i);
+            int count = shared[termId];
+            shared[termId] = 0;
+            String term = index.term(termId);
+            if (count < minShared || Math.abs(term.length() - queryTerm.length()) > max) {
+                continue;
+            }
+            int d = distance(queryTerm, term, max);
+            if (d > 0 && d <= max) {
+                levels.get(d).add(index.postings(termId));
+            }
+        }
+
+        int[][] result = new int[max + 1][];
+        long[] seen = new long[(index.documentCount() + 63) >>> 6];
+        for (int d = 0; d <= max; d++) {
+            // Keep each document only at the smallest distance it was reached.
+            List<int[]> level = levels.get(d);
+            int[] docs = Postings.union(level.toArray(new int[0][]), level.size(), index.documentCount());
+            IntArrayList fresh = new IntArrayList(docs.length);
+            for (int docId : docs) {
+                long bit = 1L << docId;
+                if ((seen[docId >>> 6] & bit) == 0) {
+                    seen[docId >>> 6] |= bit;
+                    fresh.add(docId);
+                }
+            }
+            result[d] = fresh.toArray();
+        }
+        return result;
+    }
+
+    /** Returns this thread's zeroed shared-trigram counters, grown to at least {@code termCount}. */
+    private static int[] sharedCounts(int termCount) {
+        int[] shared = SHARED.get();
+        if (shared.length < termCount) {
+            shared = new int[termCount];
+            SHARED.set(shared);
+        }
+        return shared;
+    }
+
+    /**
+     * Returns the optimal string alignment distance between {@code a} and
+     * {@code b} (Levenshtein plus adjacent transpositions), or {@code max + 1}
+     * as soon as it is known to exceed {@code max}.
+     */
+    static int distance(String a, String b, int max) {
+        int m = a.length();
+        int n = b.length();
+        if (Math.abs(m - n) > max) {
+            return max + 1;
+        }
+        int[] prev2 = new int[n + 1];
+        int[] prev = new int[n + 1];
+        int[] row = new int[n + 1];
+        for (int j = 0; j <= n; j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= m; i++) {
+            row[0] = i;
+            int rowMin = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= n; j++) {
+                char cb = b.charAt(j - 1);
+                int cost = ca == cb ? 0 : 1;
+                int v = Math.min(Math.min(row[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && ca == b.charAt(j - 2) && a.charAt(i - 2) == cb) {
+                    v = Math.min(v, prev2[j - 2] + 1);
+                }
+                row[j] = v;
+                rowMin = Math.min(rowMin, v);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] t = prev2;
+            prev2 = prev;
+            prev = row;
+            row = t;
+        }
+        return Math.min(prev[n], max + 1);
+    }
+
+    /**
+     * Writes the {@code term.length() + 2} trigrams of {@code term}, padded with
+     * two sentinels on each side, into {@code out} (grown if needed), packing
+     * three chars into each {@code long}.
+     */
+    private static long[] trigrams(String term, long[] out) {
+        int n = term.length() + 2;
+        if (out.length < n) {
+            out = new long[n];
+        }
+        for (int i = 0; i < n; i++) {
+            out[i] = ((long) charAt(term, i - 2) << 32) | ((long) charAt(term, i - 1) << 16) | charAt(term, i);
+        }
+        return out;
+    }
+
+    private static char charAt(String term, int i) {
+        return i >= 0 && i < term.length() ? term.charAt(i) : PAD;
+    }
+
+    /** Sorted trigrams of a term range with the ascending ids of the terms containing each. */
+    private record Segment(long[] grams, int[][] gramTerms) {
+
+        /** Merges with a segment covering the following term range. */
+        Segment merge(Segment right) {
+            long[] grams = new long[this.grams.length + right.grams.length];
+            int[][] gramTerms = new int[grams.length][];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < this.grams.length || j < right.grams.length) {
+                if (j == right.grams.length || (i < this.grams.length && this.grams[i] < right.grams[j])) {
+                    grams[n] = this.grams[i];
+                    gramTerms[n++] = this.gramTerms[i++];
+                } else if (i == this.grams.length || this.grams[i] > right.grams[j]) {
+                    grams[n] = right.grams[j];
+                    gramTerms[n++] = right.gramTerms[j++];
+                } else {
+                    grams[n] = this.grams[i];
+                    gramTerms[n++] = Postings.concat(this.gramTerms[i++], right.gramTerms[j++]);
+                }
+            }
+            return new Segment(Arrays.copyOf(grams, n), Arrays.copyOf(gramTerms, n));
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class ShardTask extends RecursiveTask<Segment> {
+
+        static final int SHARD_SIZE = 8192;
+
+        private final InvertedIndex index;
+        private final int from;
+        private final int to;
+
+        ShardTask(InvertedIndex index, int from, int to) {
+            this.index = index;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Segment compute() {
+            if (to - from <= SHARD_SIZE) {
+                return build();
+            }
+            int mid = (from + to) >>> 1;
+            ShardTask left = new ShardTask(index, from, mid);
+            left.fork();
+            Segment right = new ShardTask(index, mid, to).compute();
+            return left.join().merge(right);
+        }
+
+        private Segment build() {
+            Map<Long, IntArrayList> map = new HashMap<>();
+            long[] scratch = new long[16];
+            for (int termId = from; termId < to; termId++) {
+                String term = index.term(termId);
+                scratch = trigrams(term, scratch);
+                int n = term.length() + 2;
+                for (int i = 0; i < n; i++) {
+                    map.computeIfAbsent(scratch[i], g -> new IntArrayList()).addIfNotLast(termId);
+                }
+            }
+            long[] grams = new long[map.size()];
+            int i = 0;
+            for (Long gram : map.keySet()) {
+                grams[i++] = gram;
+            }
+            Arrays.sort(grams);
+            int[][] gramTerms = new int[grams.length][];
+            for (i = 0; i < grams.length; i++) {
+                gramTerms[i] = map.get(grams[i]).toArray();
+            }
+            return new Segment(grams, gramTerms);
+        }
+    }
+}
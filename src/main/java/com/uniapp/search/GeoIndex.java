@@ -0,0 +1,436 @@
+package com.uniapp.search;
+
+import com.uniapp.model.GeoPoint;
+import com.uniapp.model.UniversityStore;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Balanced k-d tree over the locations of the documents, answering
+ * nearest-{@code n} and radius queries.
+ * <p>
+ * Locations are stored as points on the unit sphere in three dimensions, so
+ * the straight-line (chord) distance between two points grows monotonically
+ * with their great-circle distance and the tree needs no special cases for the
+ * poles or the antimeridian. The tree is implicit: the median of each range
+ * sits in the middle of the range and the halves on either side are its
+ * subtrees, each split on the axis along which its points spread most. A
+ * query visits O(log n) nodes on average plus those within reach of the
+ * results.
+ * <p>
+ * Queries may be restricted to a set of documents, such as the hits of a text
+ * query within a country. When the set is small, its members are measured
+ * directly instead, which costs less than walking a tree in which most points
+ * are rejected.
+ * <p>
+ * {@link #patch Patching} leaves the tree itself alone: points of changed
+ * documents are retired from it and their new locations kept in a short
+ * unsorted tail that every query scans, until the tail or the retired points
+ * grow large enough to justify rebuilding the tree.
+ */
+public final class GeoIndex {
+
+    private static final byte X = 0;
+    private static final byte Y = 1;
+    private static final byte Z = 2;
+    private static final int MAX_TAIL = 512;
+
+    private final int documentCount;
+    /** Number of positions that form the tree; the tail follows them. */
+    private final int treeSize;
+    /** Number of tree positions whose document has since changed. */
+    private final int retired;
+    private final int size;
+    private final int[] docs;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+    private final byte[] axes;
+    /**
+     * Position of each document in the tree or tail, or {@code -1} for a
+     * document without a location. A position is live only if it is the one
+     * its document points back to.
+     */
+    private final int[] positions;
+
+    private GeoIndex(int documentCount, int treeSize, int retired, int size, int[] docs, double[] xs,
+                     double[] ys, double[] zs, byte[] axes, int[] positions) {
+        this.documentCount = documentCount;
+        this.treeSize = treeSize;
+        this.retired = retired;
+        this.size = size;
+        this.docs = docs;
+        this.xs = xs;
+        this.ys = ys;
+        this.zs = zs;
+        this.axes = axes;
+        this.positions = positions;
+    }
+
+    /** Builds the tree over the documents of {@code store} that have a location. */
+    public static GeoIndex build(UniversityStore store) {
+        int count = 0;
+        for (int docId = 0; docId < store.size(); docId++) {
+            if (store.hasLocation(docId)) {
+                count++;
+            }
+        }
+        int[] docs = new int[count];
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        double[] zs = new double[count];
+        int i = 0;
+        for (int docId = 0; docId < store.size(); docId++) {
+            if (store.hasLocation(docId)) {
+                double latitude = Math.toRadians(store.latitude(docId));
+                double longitude = Math.toRadians(store.longitude(docId));
+                docs[i] = docId;
+                xs[i] = Math.cos(latitude) * Math.cos(longitude);
+                ys[i] = Math.cos(latitude) * Math.sin(longitude);
+                zs[i] = Math.sin(latitude);
+                i++;
+            }
+        }
+        int[] positions = new int[store.size()];
+        Arrays.fill(positions, -1);
+        GeoIndex index = new GeoIndex(store.size(), count, 0, count, docs, xs, ys, zs, new byte[count], positions);
+        index.split(0, count);
+        for (int p = 0; p < count; p++) {
+            positions[docs[p]] = p;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the index for {@code store}, the result of {@code changes}. The
+     * tree is shared with this index, and the tail copied with the changed
+     * documents' points replaced, unless that leaves too many points in the
+     * tail or retired from the tree, in which case it is rebuilt.
+     */
+    GeoIndex patch(UniversityStore store, DocChanges changes) {
+        int n = changes.documentCount();
+        int[] positions = Arrays.copyOf(this.positions, n);
+        if (n > documentCount) {
+            Arrays.fill(positions, documentCount, n, -1);
+        }
+        int retired = this.retired;
+        int[] docIds = changes.docIds();
+        for (int docId : docIds) {
+            int position = docId < documentCount ? this.positions[docId] : -1;
+            if (position >= 0) {
+                retired += position < treeSize ? 1 : 0;
+                if (docId < n) {
+                    positions[docId] = -1;
+                }
+            }
+        }
+        IntArrayList tail = new IntArrayList();
+        for (int position = treeSize; position < docs.length; position++) {
+            if (docs[position] < n && positions[docs[position]] == position) {
+                tail.add(docs[position]);
+            }
+        }
+        for (int docId : docIds) {
+            if (docId < n && store.hasLocation(docId)) {
+                tail.add(docId);
+            }
+        }
+        if (tail.size() > MAX_TAIL || retired > treeSize / 4) {
+            return build(store);
+        }
+        int length = treeSize + tail.size();
+        int[] docs = Arrays.copyOf(this.docs, length);
+        double[] xs = Arrays.copyOf(this.xs, length);
+        double[] ys = Arrays.copyOf(this.ys, length);
+        double[] zs = Arrays.copyOf(this.zs, length);
+        for (int i = 0; i < tail.size(); i++) {
+            int docId = tail.get(i);
+            int position = treeSize + i;
+            double latitude = Math.toRadians(store.latitude(docId));
+            double longitude = Math.toRadians(store.longitude(docId));
+            docs[position] = docId;
+            xs[position] = Math.cos(latitude) * Math.cos(longitude);
+            ys[position] = Math.cos(latitude) * Math.sin(longitude);
+            zs[position] = Math.sin(latitude);
+            positions[docId] = position;
+        }
+        return new GeoIndex(n, treeSize, retired, treeSize - retired + tail.size(), docs, xs, ys, zs, axes,
+                positions);
+    }
+
+    /** Returns the number of documents with a location. */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the {@code n} documents closest to {@code origin}, nearest
+     * first. {@code filter} restricts the candidates to the ids it contains,
+     * in ascending order; {@code null} admits every document with a location.
+     */
+    public List<GeoMatch> nearest(GeoPoint origin, int n, int[] filter) {
+        return search(origin, n, 4, filter);
+    }
+
+    /**
+     * Returns up to {@code limit} documents within {@code radiusKm} of
+     * {@code origin}, nearest first, restricted to {@code filter} as for
+     * {@link #nearest}.
+     */
+    public List<GeoMatch> within(GeoPoint origin, double radiusKm, int limit, int[] filter) {
+        double angle = radiusKm / GeoPoint.EARTH_RADIUS_KM;
+        double chord = angle >= Math.PI ? 2 : 2 * Math.sin(angle / 2);
+        return search(origin, limit, chord * chord, filter);
+    }
+
+    private List<GeoMatch> search(GeoPoint origin, int n, double maxSquared, int[] filter) {
+        if (n <= 0 || size == 0 || filter != null && filter.length == 0) {
+            return List.of();
+        }
+        double latitude = Math.toRadians(origin.latitude());
+        double longitude = Math.toRadians(origin.longitude());
+        Query query = new Query(Math.cos(latitude) * Math.cos(longitude), Math.cos(latitude) * Math.sin(longitude),
+                Math.sin(latitude), Math.min(n, filter == null ? size : filter.length), maxSquared);
+        // Measuring each filtered document costs filter.length; a walk visits about n / density nodes.
+        if (filter != null && (long) filter.length * filter.length <= (long) n * size) {
+            for (int docId : filter) {
+                int position = positions[docId];
+                if (position >= 0) {
+                    query.offer(position);
+                }
+            }
+            return query.results();
+        }
+        long[] bitmap = filter == null ? null : DocSet.bitmap(filter, documentCount);
+        query.walk(0, treeSize, bitmap);
+        for (int position = treeSize; position < docs.length; position++) {
+            if (admits(position, bitmap)) {
+                query.offer(position);
+            }
+        }
+        return query.results();
+    }
+
+    /** Returns whether {@code position} is live and its document is in {@code filter}, if there is one. */
+    private boolean admits(int position, long[] filter) {
+        int docId = docs[position];
+        // The tail only ever holds live points, and the tree does until a patch retires some.
+        boolean live = retired == 0 || position >= treeSize
+                || docId < documentCount && positions[docId] == position;
+        return live && (filter == null || (filter[docId >>> 6] & (1L << docId)) != 0);
+    }
+
+    /** Arranges {@code [from, to)} as a subtree rooted at its midpoint. */
+    private void split(int from, int to) {
+        while (to - from > 1) {
+            byte axis = widestAxis(from, to);
+            int mid = (from + to) >>> 1;
+            select(from, to - 1, mid, axis);
+            axes[mid] = axis;
+            // Recurse into the smaller half and loop on the larger one to bound the stack depth.
+            if (mid - from < to - mid - 1) {
+                split(from, mid);
+                from = mid + 1;
+            } else {
+                split(mid + 1, to);
+                to = mid;
+            }
+        }
+    }
+
+    private byte widestAxis(int from, int to) {
+        double x = spread(xs, from, to);
+        double y = spread(ys, from, to);
+        double z = spread(zs, from, to);
+        return x >= y && x >= z ? X : y >= z ? Y : Z;
+    }
+
+    private static double spread(double[] values, int from, int to) {
+        double min = values[from];
+        double max = values[from];
+        for (int i = from + 1; i < to; i++) {
+            min = Math.min(min, values[i]);
+            max = Math.max(max, values[i]);
+        }
+        return max - min;
+    }
+
+    /** Quickselect: moves the {@code k}-th smallest point of {@code [lo, hi]} along {@code axis} to {@code k}. */
+    private void select(int lo, int hi, int k, byte axis) {
+        while (hi > lo) {
+            double pivot = coordinate((lo + hi) >>> 1, axis);
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (coordinate(i, axis) < pivot) {
+                    i++;
+                }
+                while (coordinate(j, axis) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private double coordinate(int position, byte axis) {
+        return axis == X ? xs[position] : axis == Y ? ys[position] : zs[position];
+    }
+
+    private void swap(int i, int j) {
+        int doc = docs[i];
+        docs[i] = docs[j];
+        docs[j] = doc;
+        double x = xs[i];
+        xs[i] = xs[j];
+        xs[j] = x;
+        double y = ys[i];
+        ys[i] = ys[j];
+        ys[j] = y;
+        double z = zs[i];
+        zs[i] = zs[j];
+        zs[j] = z;
+    }
+
+    /**
+     * One query in progress: the point, and a bounded max-heap of the closest
+     * positions found so far keyed by squared chord distance.
+     */
+    private final class Query {
+
+        private final double x;
+        private final double y;
+        private final double z;
+        private final int capacity;
+        private final int[] heap;
+        private final double[] distances;
+        private int size;
+        private double bound;
+
+        Query(double x, double y, double z, int capacity, double maxSquared) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.capacity = capacity;
+            this.heap = new int[capacity];
+            this.distances = new double[capacity];
+            // Slightly widened so points exactly on the radius are not lost to rounding.
+            this.bound = maxSquared * (1 + 1e-12);
+        }
+
+        void walk(int from, int to, long[] filter) {
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (admits(mid, filter)) {
+                    offer(mid);
+                }
+                double delta = switch (axes[mid]) {
+                    case X -> x - xs[mid];
+                    case Y -> y - ys[mid];
+                    default -> z - zs[mid];
+                };
+                int nearFrom = delta < 0 ? from : mid + 1;
+                int nearTo = delta < 0 ? mid : to;
+                // The far side can only hold a closer point if the splitting plane is within the bound.
+                if (delta * delta < bound) {
+                    int farFrom = delta < 0 ? mid + 1 : from;
+                    int farTo = delta < 0 ? to : mid;
+                    walk(nearFrom, nearTo, filter);
+                    if (delta * delta >= bound) {
+                        return;
+                    }
+                    from = farFrom;
+                    to = farTo;
+                } else {
+                    from = nearFrom;
+                    to = nearTo;
+                }
+            }
+        }
+
+        void offer(int position) {
+            double dx = x - xs[position];
+            double dy = y - ys[position];
+            double dz = z - zs[position];
+            double distance = dx * dx + dy * dy + dz * dz;
+            if (distance > bound) {
+                return;
+            }
+            if (size < capacity) {
+                heap[size] = position;
+                distances[size] = distance;
+                up(size++);
+                if (size == capacity) {
+                    bound = Math.min(bound, distances[0]);
+                }
+            } else if (distance < distances[0]) {
+                heap[0] = position;
+                distances[0] = distance;
+                down(0);
+                bound = distances[0];
+            }
+        }
+
+        List<GeoMatch> results() {
+            GeoMatch[] matches = new GeoMatch[size];
+            for (int i = 0; i < size; i++) {
+                double chord = Math.sqrt(distances[i]);
+                matches[i] = new GeoMatch(docs[heap[i]],
+                        2 * GeoPoint.EARTH_RADIUS_KM * Math.asin(Math.min(1, chord / 2)));
+            }
+            Arrays.sort(matches, (a, b) -> a.distanceKm() != b.distanceKm()
+                    ? Double.compare(a.distanceKm(), b.distanceKm())
+                    : Integer.compare(a.docId(), b.docId()));
+            return List.of(matches);
+        }
+
+        private void up(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (distances[parent] >= distances[i]) {
+                    return;
+                }
+                exchange(i, parent);
+                i = parent;
+            }
+        }
+
+        private void down(int i) {
+            while (true) {
+                int largest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && distances[left] > distances[largest]) {
+                    largest = left;
+                }
+                if (right < size && distances[right] > distances[largest]) {
+                    largest = right;
+                }
+                if (largest == i) {
+                    return;
+                }
+                exchange(i, largest);
+                i = largest;
+            }
+        }
+
+        private void exchange(int i, int j) {
+            int position = heap[i];
+            heap[i] = heap[j];
+            heap[j] = position;
+            double distance = distances[i];
+            distances[i] = distances[j];
+            distances[j] = distance;
+        }
+    }
+}
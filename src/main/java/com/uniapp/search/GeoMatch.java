@@ -0,0 +1,10 @@
+package com.uniapp.search;
+
+/**
+ * A document found by a location query of {@link GeoIndex}.
+ *
+ * @param docId      the matching document
+ * @param distanceKm the great-circle distance from the query point in kilometres
+ */
+public record GeoMatch(int docId, double distanceKm) {
+}
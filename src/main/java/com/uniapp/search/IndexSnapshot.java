@@ -0,0 +1,174 @@
+package com.uniapp.search;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Serialized {@link SearchEngine}, saved when the app exits and restored on
+ * the next launch so that startup does not re-tokenize the dataset.
+ * <p>
+ * The file is a fixed header followed by the engine's store, inverted index,
+ * fuzzy trigrams and ranking fields as length-prefixed primitive arrays. Restoring
+ * memory-maps the file, verifies a CRC32C of the body and bulk-copies the
+ * arrays out of the mapping.
+ * <pre>
+ * int magic | int format | long datasetVersion | long bodyLength | int crc32c | int reserved
+ * </pre>
+ */
+public final class IndexSnapshot {
+
+    static final int MAGIC = 0x554E4953; // "UNIS"
+    static final int FORMAT = 5;
+    static final int HEADER_SIZE = 32;
+
+    private final Path file;
+
+    public IndexSnapshot(Path file) {
+        this.file = file;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /** Writes {@code engine}, built from dataset {@code version}, replacing any previous snapshot atomically. */
+    public void save(SearchEngine engine, long version) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            CRC32C crc = new CRC32C();
+            long bodyLength;
+            try (OutputStream stream = Files.newOutputStream(temp, StandardOpenOption.WRITE)) {
+                stream.write(new byte[HEADER_SIZE]);
+                ChecksumOutputStream body = new ChecksumOutputStream(stream, crc);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(body, 1 << 16));
+                engine.writeTo(out);
+                out.flush();
+                bodyLength = body.count;
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(FORMAT).putLong(version).putLong(bodyLength)
+                    .putInt((int) crc.getValue()).putInt(0).flip();
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Returns the engine stored in the snapshot, or {@code null} when there is
+     * no snapshot or it was built from a dataset version other than
+     * {@code version}.
+     *
+     * @throws IOException if the snapshot is truncated, fails its checksum or
+     *                     cannot be decoded; callers rebuild the index instead
+     */
+    public SearchEngine restore(long version) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Truncated index snapshot " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+                throw new IOException("Not an index snapshot: " + file);
+            }
+            if (buffer.getLong() != version) {
+                return null;
+            }
+            long bodyLength = buffer.getLong();
+            int checksum = buffer.getInt();
+            if (bodyLength != size - HEADER_SIZE) {
+                throw new IOException("Truncated index snapshot " + file);
+            }
+            ByteBuffer body = buffer.position(HEADER_SIZE).slice();
+            CRC32C crc = new CRC32C();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                throw new IOException("Index snapshot checksum mismatch in " + file);
+            }
+            try {
+                SearchEngine engine = SearchEngine.readFrom(body);
+                if (body.hasRemaining()) {
+                    throw new IOException("Trailing data in index snapshot " + file);
+                }
+                return engine;
+            } catch (RuntimeException e) {
+                throw new IOException("Corrupt index snapshot " + file, e);
+            }
+        }
+    }
+
+    /** Deletes the snapshot, e.g. after it failed to restore. */
+    public void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    static void writeStrings(String[] values, DataOutput out) throws IOException {
+        out.writeInt(values.length);
+        for (String value : values) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    static String[] readStrings(ByteBuffer in) {
+        String[] values = new String[in.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            byte[] bytes = new byte[in.getInt()];
+            in.get(bytes);
+            values[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return values;
+    }
+
+    /** Counts and checksums the bytes written through it. */
+    private static final class ChecksumOutputStream extends FilterOutputStream {
+
+        private final CRC32C crc;
+        private long count;
+
+        ChecksumOutputStream(OutputStream out, CRC32C crc) {
+            super(out);
+            this.crc = crc;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            crc.update(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            crc.update(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.uniapp.search;
+
+import java.util.Arrays;
+
+/**
+ * Minimal growable {@code int} list used while building postings, avoiding
+ * one boxed {@link Integer} per document occurrence.
+ */
+final class IntArrayList {
+
+    private int[] values;
+    private int size;
+
+    IntArrayList() {
+        this(4);
+    }
+
+    IntArrayList(int capacity) {
+        values = new int[Math.max(1, capacity)];
+    }
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size << 1);
+        }
+        values[size++] = value;
+    }
+
+    /** Adds {@code value} unless it equals the last element; keeps ascending doc ids unique. */
+    void addIfNotLast(int value) {
+        if (size == 0 || values[size - 1] != value) {
+            add(value);
+        }
+    }
+
+    int get(int index) {
+        return values[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
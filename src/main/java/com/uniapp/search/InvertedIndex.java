@@ -0,0 +1,379 @@
+package com.uniapp.search;
+
+import com.uniapp.model.IntArrays;
+import com.uniapp.model.University;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Immutable term-to-documents index over university name, country,
+ * state/province and domain tokens.
+ * <p>
+ * Terms are kept in a sorted array so that a prefix query is a binary search
+ * followed by a scan of the matching term range; each term maps to a sorted
+ * array of document ids. Document ids are positions in the list the index was
+ * built from.
+ */
+public final class InvertedIndex {
+
+    private final String[] terms;
+    private final int[][] postings;
+    private final int documentCount;
+
+    InvertedIndex(String[] terms, int[][] postings, int documentCount) {
+        this.terms = terms;
+        this.postings = postings;
+        this.documentCount = documentCount;
+    }
+
+    /**
+     * Builds an index where document {@code i} is {@code universities.get(i)}.
+     * Large inputs are split into shards indexed in parallel on the common
+     * fork-join pool; see {@link ShardTask}.
+     */
+    public static InvertedIndex build(List<University> universities) {
+        if (universities.size() < 2 * ShardTask.SHARD_SIZE) {
+            Builder builder = new Builder();
+            for (University university : universities) {
+                builder.add(university);
+            }
+            return builder.build();
+        }
+        ShardTask.Segment segment = ForkJoinPool.commonPool()
+                .invoke(new ShardTask(universities, 0, universities.size()));
+        return new InvertedIndex(segment.terms, segment.postings, universities.size());
+    }
+
+    /** Returns the number of indexed documents. */
+    public int documentCount() {
+        return documentCount;
+    }
+
+    /** Returns the number of distinct terms. */
+    public int termCount() {
+        return terms.length;
+    }
+
+    /** Returns the term with the given position in the sorted dictionary. */
+    String term(int termId) {
+        return terms[termId];
+    }
+
+    /** Returns the documents containing the term with the given position in the sorted dictionary. */
+    int[] postings(int termId) {
+        return postings[termId];
+    }
+
+    /** Returns the dictionary position of {@code term}, or a negative value if it is not indexed. */
+    int termId(String term) {
+        return Arrays.binarySearch(terms, term);
+    }
+
+    /** Returns the first dictionary position whose term is {@code >= prefix}. */
+    int prefixStart(String prefix) {
+        return lowerBound(prefix);
+    }
+
+    /** Returns the position after the last term starting with {@code prefix}, scanning from {@code from}. */
+    int prefixEnd(String prefix, int from) {
+        int to = from;
+        while (to < terms.length && terms[to].startsWith(prefix)) {
+            to++;
+        }
+        return to;
+    }
+
+    /** Returns the documents containing exactly {@code term}. */
+    public int[] lookup(String term) {
+        int i = Arrays.binarySearch(terms, term);
+        return i >= 0 ? postings[i] : Postings.EMPTY;
+    }
+
+    /**
+     * Returns the documents containing at least one term starting with
+     * {@code prefix}, or with either spelling of a query prefix ending in
+     * {@link TermNormalizer#PENDING_UPSILON}.
+     */
+    public int[] prefix(String prefix) {
+        String[] spellings = TermNormalizer.spellings(prefix);
+        if (spellings.length > 1) {
+            return Postings.union(new int[][] {prefix(spellings[0]), prefix(spellings[1])}, 2, documentCount);
+        }
+        int from = lowerBound(prefix);
+        int to = prefixEnd(prefix, from);
+        if (to - from == 1) {
+            return postings[from];
+        }
+        return Postings.union(Arrays.copyOfRange(postings, from, to), to - from, documentCount);
+    }
+
+    /**
+     * Returns the documents matching every term of {@code query}, treating each
+     * term as a prefix so results update while the user is still typing.
+     */
+    public int[] search(String query) {
+        return search(Tokenizer.tokenizeQuery(query));
+    }
+
+    /** Returns the documents matching every one of the already tokenized {@code queryTerms}, each as a prefix. */
+    public int[] search(List<String> queryTerms) {
+        if (queryTerms.isEmpty()) {
+            return Postings.EMPTY;
+        }
+        List<int[]> lists = new ArrayList<>(queryTerms.size());
+        for (String term : queryTerms) {
+            int[] hits = prefix(term);
+            if (hits.length == 0) {
+                return Postings.EMPTY;
+            }
+            lists.add(hits);
+        }
+        lists.sort((a, b) -> Integer.compare(a.length, b.length));
+        int[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = Postings.intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Returns this index with {@code changes} applied. Only the postings of
+     * terms whose documents changed are copied; all others are shared with
+     * this index, which is left untouched.
+     */
+    Patch patch(DocChanges changes) {
+        Map<String, IntArrayList> removed = new HashMap<>();
+        Map<String, IntArrayList> added = new HashMap<>();
+        int[] docIds = changes.docIds();
+        for (int i = 0; i < docIds.length; i++) {
+            int docId = docIds[i];
+            for (String term : changes.removedTerms(i)) {
+                removed.computeIfAbsent(term, t -> new IntArrayList()).add(docId);
+            }
+            for (String term : changes.addedTerms(i)) {
+                added.computeIfAbsent(term, t -> new IntArrayList()).add(docId);
+            }
+        }
+        int[][] patched = postings.clone();
+        int dropped = 0;
+        Map<String, int[]> newTerms = new HashMap<>();
+        for (Map.Entry<String, IntArrayList> entry : removed.entrySet()) {
+            int termId = termId(entry.getKey());
+            patched[termId] = Postings.subtract(patched[termId], entry.getValue().toArray());
+        }
+        for (Map.Entry<String, IntArrayList> entry : added.entrySet()) {
+            int termId = termId(entry.getKey());
+            if (termId >= 0) {
+                patched[termId] = Postings.merge(patched[termId], entry.getValue().toArray());
+            } else {
+                newTerms.put(entry.getKey(), entry.getValue().toArray());
+            }
+        }
+        for (String term : removed.keySet()) {
+            int termId = termId(term);
+            if (patched[termId].length == 0) {
+                patched[termId] = null;
+                dropped++;
+            }
+        }
+        if (dropped == 0 && newTerms.isEmpty()) {
+            return new Patch(new InvertedIndex(terms, patched, changes.documentCount()), null);
+        }
+        // The dictionary changed: merge the surviving terms with the new ones and record where each old term went.
+        String[] inserted = newTerms.keySet().toArray(new String[0]);
+        Arrays.sort(inserted);
+        String[] mergedTerms = new String[terms.length - dropped + inserted.length];
+        int[][] mergedPostings = new int[mergedTerms.length][];
+        int[] termIds = new int[terms.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < terms.length || j < inserted.length) {
+            if (j == inserted.length || (i < terms.length && terms[i].compareTo(inserted[j]) < 0)) {
+                if (patched[i] == null) {
+                    termIds[i++] = -1;
+                    continue;
+                }
+                termIds[i] = n;
+                mergedTerms[n] = terms[i];
+                mergedPostings[n++] = patched[i++];
+            } else {
+                mergedTerms[n] = inserted[j];
+                mergedPostings[n++] = newTerms.get(inserted[j++]);
+            }
+        }
+        return new Patch(new InvertedIndex(mergedTerms, mergedPostings, changes.documentCount()), termIds);
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(documentCount);
+        IndexSnapshot.writeStrings(terms, out);
+        out.writeInt(postings.length);
+        for (int[] list : postings) {
+            IntArrays.writeInts(list, out);
+        }
+    }
+
+    static InvertedIndex readFrom(ByteBuffer in) {
+        int documentCount = in.getInt();
+        String[] terms = IndexSnapshot.readStrings(in);
+        int[][] postings = new int[in.getInt()][];
+        for (int i = 0; i < postings.length; i++) {
+            postings[i] = IntArrays.readInts(in);
+        }
+        return new InvertedIndex(terms, postings, documentCount);
+    }
+
+    /** Returns the index of the first term that is {@code >= key}. */
+    private int lowerBound(String key) {
+        int lo = 0;
+        int hi = terms.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (terms[mid].compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Result of {@link #patch}: the new index, and the new dictionary position
+     * of every old term ({@code -1} for a term no document has any more), or
+     * {@code null} positions if the dictionary did not change.
+     */
+    record Patch(InvertedIndex index, int[] termIds) {
+
+        /** Returns the new position of old term {@code termId}. */
+        int termId(int termId) {
+            return termIds == null ? termId : termIds[termId];
+        }
+    }
+
+    /**
+     * Indexes a range of documents by splitting it in halves until each shard
+     * is small enough to index on its own, then merging the halves' sorted
+     * term arrays. Shards cover consecutive id ranges and the left half always
+     * holds the smaller ids, so a term's merged postings are the left postings
+     * followed by the right ones; the result is identical to a sequential build.
+     */
+    @SuppressWarnings("serial")
+    private static final class ShardTask extends RecursiveTask<ShardTask.Segment> {
+
+        static final int SHARD_SIZE = 4096;
+
+        private final List<University> universities;
+        private final int from;
+        private final int to;
+
+        ShardTask(List<University> universities, int from, int to) {
+            this.universities = universities;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Segment compute() {
+            if (to - from <= SHARD_SIZE) {
+                Builder builder = new Builder(from);
+                for (int docId = from; docId < to; docId++) {
+                    builder.add(universities.get(docId));
+                }
+                InvertedIndex shard = builder.build();
+                return new Segment(shard.terms, shard.postings);
+            }
+            int mid = (from + to) >>> 1;
+            ShardTask left = new ShardTask(universities, from, mid);
+            left.fork();
+            Segment right = new ShardTask(universities, mid, to).compute();
+            return left.join().merge(right);
+        }
+
+        private record Segment(String[] terms, int[][] postings) {
+
+            Segment merge(Segment right) {
+                String[] terms = new String[this.terms.length + right.terms.length];
+                int[][] postings = new int[terms.length][];
+                int i = 0;
+                int j = 0;
+                int n = 0;
+                while (i < this.terms.length && j < right.terms.length) {
+                    int c = this.terms[i].compareTo(right.terms[j]);
+                    if (c < 0) {
+                        terms[n] = this.terms[i];
+                        postings[n++] = this.postings[i++];
+                    } else if (c > 0) {
+                        terms[n] = right.terms[j];
+                        postings[n++] = right.postings[j++];
+                    } else {
+                        terms[n] = this.terms[i];
+                        postings[n++] = Postings.concat(this.postings[i++], right.postings[j++]);
+                    }
+                }
+                while (i < this.terms.length) {
+                    terms[n] = this.terms[i];
+                    postings[n++] = this.postings[i++];
+                }
+                while (j < right.terms.length) {
+                    terms[n] = right.terms[j];
+                    postings[n++] = right.postings[j++];
+                }
+                return new Segment(Arrays.copyOf(terms, n), Arrays.copyOf(postings, n));
+            }
+        }
+    }
+
+    /**
+     * Accumulates documents one at a time so that an index can be built while
+     * records are still being read. {@link #build} may be called repeatedly;
+     * each call returns an independent snapshot of the documents added so far.
+     */
+    public static final class Builder {
+
+        private final Map<String, IntArrayList> map = new HashMap<>();
+        private int documentCount;
+
+        public Builder() {
+            this(0);
+        }
+
+        /** Creates a builder whose first document gets id {@code firstDocId}, for indexing one shard. */
+        Builder(int firstDocId) {
+            this.documentCount = firstDocId;
+        }
+
+        /** Adds {@code university} as the next document and returns its id. */
+        public int add(University university) {
+            int id = documentCount++;
+            Tokenizer.tokenize(university, term -> map.computeIfAbsent(term, t -> new IntArrayList()).addIfNotLast(id));
+            return id;
+        }
+
+        /** Returns the number of documents added so far. */
+        public int documentCount() {
+            return documentCount;
+        }
+
+        /** Returns an index over the documents added so far. */
+        public InvertedIndex build() {
+            String[] terms = map.keySet().toArray(new String[0]);
+            Arrays.sort(terms);
+            int[][] postings = new int[terms.length][];
+            for (int i = 0; i < terms.length; i++) {
+                postings[i] = map.get(terms[i]).toArray();
+            }
+            return new InvertedIndex(terms, postings, documentCount);
+        }
+    }
+}
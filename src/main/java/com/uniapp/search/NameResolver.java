@@ -0,0 +1,179 @@
+package com.uniapp.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves a free-text institution name, such as one typed by an applicant,
+ * to the single most likely university.
+ * <p>
+ * Every input term is looked up by prefix in the inverted index, and only
+ * terms without any prefix match are expanded through the fuzzy trigram
+ * index. The candidates are the documents matching every term. If the terms
+ * do not all intersect, their document lists are intersected greedily,
+ * rarest first, and any list that would leave no candidates is skipped, so
+ * that extra words such as a department name do not rule out the
+ * institution. This is not necessarily the largest set of terms that
+ * intersects. The {@link Ranker} orders the candidates, and of the
+ * best few the one whose name terms are most similar to the input's terms is
+ * the match; that similarity is its confidence. Fuzzy-only terms earn no
+ * BM25 score, so it is the similarity that tells a misspelled name apart from
+ * a document that merely shares its common words.
+ * <p>
+ * Resolution bypasses the query cache, whose lock and LRU order are meant
+ * for interactive typing, so one resolver can be used from many threads at
+ * once.
+ */
+public final class NameResolver {
+
+    /** Best-ranked candidates compared by name similarity to pick the match. */
+    static final int RERANK_SIZE = 8;
+    /** Terms whose matching documents are remembered; batches repeat the same words across many rows. */
+    static final int TERM_CACHE_SIZE = 1 << 16;
+    /** Confidence given at least to a match whose domain label equals an input term, e.g. {@code mit}. */
+    static final float DOMAIN_CONFIDENCE = 0.9f;
+
+    private final SearchEngine engine;
+    private final InvertedIndex index;
+    private final Ranker ranker;
+    private final ConcurrentHashMap<String, TermMatches> terms = new ConcurrentHashMap<>();
+
+    public NameResolver(SearchEngine engine) {
+        this.engine = engine;
+        this.index = engine.index();
+        this.ranker = engine.ranker();
+    }
+
+    public SearchEngine engine() {
+        return engine;
+    }
+
+    /** Returns the best match for {@code name}. */
+    public Resolution resolve(String name) {
+        List<String> terms = Tokenizer.tokenize(name);
+        if (terms.isEmpty()) {
+            return Resolution.none(name);
+        }
+        // Only terms without a prefix match are expanded fuzzily; the rest keep their exact postings.
+        List<int[]> lists = new ArrayList<>(terms.size());
+        boolean exact = true;
+        for (String term : terms) {
+            TermMatches matches = matches(term);
+            exact &= matches.exact;
+            if (matches.docs.length > 0) {
+                lists.add(matches.docs);
+            }
+        }
+        if (lists.isEmpty()) {
+            return Resolution.none(name);
+        }
+        lists.sort((a, b) -> Integer.compare(a.length, b.length));
+        int[] candidates = lists.get(0);
+        boolean complete = lists.size() == terms.size();
+        for (int i = 1; i < lists.size(); i++) {
+            int[] narrowed = Postings.intersect(candidates, lists.get(i));
+            if (narrowed.length > 0) {
+                candidates = narrowed;
+            } else {
+                // Skip the term rather than lose every candidate, e.g. a department name.
+                complete = false;
+            }
+        }
+        Resolution.Kind kind = !complete ? Resolution.Kind.PARTIAL
+                : exact ? Resolution.Kind.EXACT : Resolution.Kind.FUZZY;
+        return best(name, terms, ranker.top(terms, candidates, RERANK_SIZE), kind);
+    }
+
+    private TermMatches matches(String term) {
+        TermMatches matches = this.terms.get(term);
+        if (matches == null) {
+            int[] docs = index.prefix(term);
+            matches = docs.length > 0 ? new TermMatches(docs, true) : new TermMatches(engine.fuzzy().near(term), false);
+            if (this.terms.size() >= TERM_CACHE_SIZE) {
+                // Crude but lock-free bound; a batch refills what it still needs.
+                this.terms.clear();
+            }
+            this.terms.put(term, matches);
+        }
+        return matches;
+    }
+
+    /** Returns the resolution to the most similar of {@code ranked}, preferring the better ranked on ties. */
+    private Resolution best(String name, List<String> terms, int[] ranked, Resolution.Kind kind) {
+        int docId = ranked[0];
+        float confidence = similarity(terms, docId);
+        for (int i = 1; i < ranked.length && confidence < 1; i++) {
+            float similarity = similarity(terms, ranked[i]);
+            if (similarity > confidence) {
+                docId = ranked[i];
+                confidence = similarity;
+            }
+        }
+        for (String term : terms) {
+            int termId = index.termId(term);
+            if (termId >= 0 && ranker.isDomainLabel(docId, termId)) {
+                confidence = Math.max(confidence, DOMAIN_CONFIDENCE);
+                break;
+            }
+        }
+        return new Resolution(name, docId, engine.universities().get(docId), confidence, kind);
+    }
+
+    /**
+     * Returns a similarity in {@code [0, 1]} between the input terms and the
+     * name of {@code docId}: every term on either side is credited with its
+     * best match on the other side, and the credits are averaged over the terms
+     * of both, so missing and surplus words both lower the score.
+     */
+    float similarity(List<String> terms, int docId) {
+        int from = ranker.nameStart(docId);
+        int to = ranker.nameEnd(docId);
+        if (to == from) {
+            return 0;
+        }
+        String[] nameTerms = new String[to - from];
+        for (int i = from; i < to; i++) {
+            nameTerms[i - from] = index.term(ranker.nameTerm(i));
+        }
+        float[] nameCredit = new float[nameTerms.length];
+        float total = 0;
+        for (String term : terms) {
+            float best = 0;
+            for (int i = 0; i < nameTerms.length; i++) {
+                float credit = credit(term, nameTerms[i]);
+                best = Math.max(best, credit);
+                nameCredit[i] = Math.max(nameCredit[i], credit);
+            }
+            total += best;
+        }
+        for (float credit : nameCredit) {
+            total += credit;
+        }
+        return total / (terms.size() + nameTerms.length);
+    }
+
+    /**
+     * Returns how well input term {@code term} matches name term
+     * {@code nameTerm}, from 0 to 1. A prefix, such as an abbreviation, earns
+     * half credit plus half the fraction of the name term it covers.
+     */
+    static float credit(String term, String nameTerm) {
+        if (term.equals(nameTerm)) {
+            return 1;
+        }
+        if (nameTerm.startsWith(term)) {
+            return 0.5f + 0.5f * term.length() / nameTerm.length();
+        }
+        int max = FuzzyMatcher.maxEdits(term.length());
+        if (max == 0) {
+            return 0;
+        }
+        int distance = FuzzyMatcher.distance(term, nameTerm, max);
+        return distance > max ? 0 : 1 - (float) distance / Math.max(term.length(), nameTerm.length());
+    }
+
+    /** The documents matching a term, and whether they match it by prefix rather than fuzzily. */
+    private record TermMatches(int[] docs, boolean exact) {
+    }
+}
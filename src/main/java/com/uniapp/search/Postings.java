@@ -0,0 +1,154 @@
+package com.uniapp.search;
+
+import java.util.Arrays;
+
+/**
+ * Set operations over sorted, duplicate-free arrays of document ids.
+ */
+public final class Postings {
+
+    /** The shared empty postings list. */
+    public static final int[] EMPTY = new int[0];
+
+    private Postings() {
+    }
+
+    /** Returns the ids present in both {@code a} and {@code b}. */
+    public static int[] intersect(int[] a, int[] b) {
+        if (a.length > b.length) {
+            int[] t = a;
+            a = b;
+            b = t;
+        }
+        if (a.length == 0) {
+            return EMPTY;
+        }
+        int[] out = new int[a.length];
+        int n = 0;
+        // Galloping search keeps the cost close to |a| * log(|b|) when the lists are skewed.
+        int j = 0;
+        for (int i = 0; i < a.length && j < b.length; i++) {
+            int target = a[i];
+            j = advance(b, j, target);
+            if (j < b.length && b[j] == target) {
+                out[n++] = target;
+                j++;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    /** Returns {@code a} followed by {@code b}; every id of {@code a} must be smaller than every id of {@code b}. */
+    public static int[] concat(int[] a, int[] b) {
+        int[] out = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, out, a.length, b.length);
+        return out;
+    }
+
+    /** Returns the ids present in {@code a} or {@code b}, merging the two lists. */
+    public static int[] merge(int[] a, int[] b) {
+        if (b.length == 0) {
+            return a;
+        }
+        if (a.length == 0) {
+            return b;
+        }
+        int[] out = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                out[n++] = a[i++];
+            } else if (a[i] > b[j]) {
+                out[n++] = b[j++];
+            } else {
+                out[n++] = a[i++];
+                j++;
+            }
+        }
+        while (i < a.length) {
+            out[n++] = a[i++];
+        }
+        while (j < b.length) {
+            out[n++] = b[j++];
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    /** Returns the ids of {@code a} that are not in {@code b}. */
+    public static int[] subtract(int[] a, int[] b) {
+        if (b.length == 0 || a.length == 0) {
+            return a;
+        }
+        int[] out = new int[a.length];
+        int n = 0;
+        int j = 0;
+        for (int id : a) {
+            j = advance(b, j, id);
+            if (j == b.length || b[j] != id) {
+                out[n++] = id;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    /**
+     * Returns the union of the given lists. {@code universe} bounds the ids and is
+     * used to merge through a bitmap, which is linear in the total input size.
+     */
+    public static int[] union(int[][] lists, int count, int universe) {
+        if (count == 0) {
+            return EMPTY;
+        }
+        if (count == 1) {
+            return lists[0];
+        }
+        long[] bits = new long[(universe + 63) >>> 6];
+        for (int i = 0; i < count; i++) {
+            for (int id : lists[i]) {
+                bits[id >>> 6] |= 1L << id;
+            }
+        }
+        return fromBitmap(bits);
+    }
+
+    /** Expands a bitmap into the sorted ids of its set bits. */
+    public static int[] fromBitmap(long[] bits) {
+        int cardinality = 0;
+        for (long word : bits) {
+            cardinality += Long.bitCount(word);
+        }
+        int[] out = new int[cardinality];
+        int n = 0;
+        for (int w = 0; w < bits.length; w++) {
+            long word = bits[w];
+            while (word != 0) {
+                out[n++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return out;
+    }
+
+    /** Returns the first index {@code >= from} whose value is {@code >= target}. */
+    private static int advance(int[] values, int from, int target) {
+        int step = 1;
+        int hi = from;
+        while (hi < values.length && values[hi] < target) {
+            from = hi + 1;
+            hi += step;
+            step <<= 1;
+        }
+        hi = Math.min(hi, values.length);
+        while (from < hi) {
+            int mid = (from + hi) >>> 1;
+            if (values[mid] < target) {
+                from = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return from;
+    }
+}
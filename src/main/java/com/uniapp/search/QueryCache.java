@@ -0,0 +1,104 @@
+package com.uniapp.search;
+
+import com.uniapp.metrics.CacheOutcome;
+import com.uniapp.metrics.SearchMetrics;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of {@link InvertedIndex#search} results, keyed by the
+ * normalized query (its terms joined by single spaces).
+ * <p>
+ * Because every query term is matched as a prefix, the hits of any string
+ * prefix of a normalized query are a superset of the query's hits, e.g. the
+ * hits of {@code "uni a"} contain those of {@code "uni ath"}. A miss therefore
+ * looks for the longest cached prefix and only intersects its hits with the
+ * terms that were extended or added since.
+ * <p>
+ * Each engine has its own cache, so the outcome of each lookup is counted
+ * in the caller's {@link SearchMetrics}, which survives engine swaps.
+ */
+public final class QueryCache {
+
+    private final InvertedIndex index;
+    private final Map<String, int[]> entries;
+
+    public QueryCache(InvertedIndex index, int capacity) {
+        this.index = index;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, int[]> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /** Returns the same ids as {@code index.search(query)}, reusing cached results where possible. */
+    public int[] search(String query) {
+        return search(Tokenizer.tokenizeQuery(query));
+    }
+
+    /** Returns the same ids as {@code index.search(terms)} for a query already tokenized into {@code terms}. */
+    public int[] search(List<String> terms) {
+        return search(terms, null);
+    }
+
+    /** Same as {@link #search(List)}, counting the outcome in {@code metrics} unless it is {@code null}. */
+    synchronized int[] search(List<String> terms, SearchMetrics metrics) {
+        if (terms.isEmpty()) {
+            return Postings.EMPTY;
+        }
+        String key = String.join(" ", terms);
+        int[] result = entries.get(key);
+        CacheOutcome outcome = CacheOutcome.HIT;
+        if (result == null) {
+            result = refine(key, terms);
+            outcome = CacheOutcome.REFINEMENT;
+            if (result == null) {
+                result = index.search(terms);
+                outcome = CacheOutcome.MISS;
+            }
+            entries.put(key, result);
+        }
+        if (metrics != null) {
+            metrics.record(outcome);
+        }
+        return result;
+    }
+
+    /** Returns the hits of {@code key} derived from its longest cached prefix, or {@code null}. */
+    private int[] refine(String key, List<String> terms) {
+        for (int end = key.length() - 1; end > 0; end--) {
+            if (key.charAt(end - 1) == ' ') {
+                continue;
+            }
+            int[] base = entries.get(key.substring(0, end));
+            if (base == null) {
+                continue;
+            }
+            // Terms before the one containing end - 1 are unchanged; that one is too if a space follows.
+            int firstChanged = 0;
+            for (int i = 0; i < end; i++) {
+                if (key.charAt(i) == ' ') {
+                    firstChanged++;
+                }
+            }
+            if (key.charAt(end) == ' ') {
+                firstChanged++;
+            }
+            int[] result = base;
+            for (int t = firstChanged; t < terms.size() && result.length > 0; t++) {
+                result = Postings.intersect(result, index.prefix(terms.get(t)));
+            }
+            return result;
+        }
+        return null;
+    }
+
+    /** Returns the number of cached queries. */
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,29 @@
+package com.uniapp.search;
+
+/**
+ * Outcomes of {@link QueryCache} lookups, as counted in
+ * {@link com.uniapp.metrics.SearchMetrics}.
+ *
+ * @param hits        queries answered directly from the cache
+ * @param refinements queries answered by narrowing the hits of a cached prefix
+ * @param misses      queries that ran a full index search
+ */
+public record QueryCacheStats(long hits, long refinements, long misses) {
+
+    /** Returns the total number of queries. */
+    public long requests() {
+        return hits + refinements + misses;
+    }
+
+    /** Returns the fraction of queries answered exactly from the cache. */
+    public double hitRate() {
+        long requests = requests();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    /** Returns the fraction of queries that reused a cached result, exactly or by refinement. */
+    public double reuseRate() {
+        long requests = requests();
+        return requests == 0 ? 0 : (double) (hits + refinements) / requests;
+    }
+}
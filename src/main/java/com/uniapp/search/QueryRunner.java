@@ -0,0 +1,69 @@
+package com.uniapp.search;
+
+import com.uniapp.metrics.SearchMetrics;
+import com.uniapp.metrics.Stage;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Answers one query against an engine: exact hits narrowed by the facet
+ * selection, ranked, with facet counts, or approximate matches when nothing
+ * matches exactly. The desktop {@link SearchPipeline} and headless callers
+ * share it, so both return the same results, and it records the time of each
+ * stage up to {@link Stage#FACETS}; the caller records {@link Stage#RENDER}
+ * and {@link Stage#TOTAL}.
+ * <p>
+ * Runners hold no per-query state and may be used from several threads.
+ */
+public final class QueryRunner {
+
+    /** Maximum number of approximate matches returned when a query has no exact hits. */
+    public static final int FUZZY_LIMIT = 50;
+    /** Number of hits ordered by relevance at the top of a result; the rest stay in dataset order. */
+    public static final int RANK_LIMIT = 100;
+
+    private static final BooleanSupplier NEVER = () -> false;
+
+    private final SearchMetrics metrics;
+
+    public QueryRunner(SearchMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public SearchMetrics metrics() {
+        return metrics;
+    }
+
+    /** Returns the result of {@code query} within {@code selection}. */
+    public SearchResult run(SearchEngine engine, String query, FacetSelection selection) {
+        return run(engine, query, selection, NEVER);
+    }
+
+    /**
+     * Returns the result of {@code query} within {@code selection}, or
+     * {@code null} if {@code superseded} turns true before the approximate
+     * matching a query without hits would otherwise start.
+     */
+    SearchResult run(SearchEngine engine, String query, FacetSelection selection, BooleanSupplier superseded) {
+        long start = System.nanoTime();
+        List<String> terms = Tokenizer.tokenizeQuery(query);
+        long time = metrics.recordSince(Stage.TOKENIZE, start);
+        int[] hits = engine.hits(terms, selection, metrics);
+        time = metrics.recordSince(Stage.LOOKUP, time);
+        if (hits.length == 0 && selection.isEmpty()) {
+            if (superseded.getAsBoolean()) {
+                return null;
+            }
+            int[] matches = engine.fuzzyHits(terms, FUZZY_LIMIT);
+            metrics.recordSince(Stage.FUZZY, time);
+            return new SearchResult(query, engine.store(), matches, matches.length > 0, Map.of());
+        }
+        int[] ranked = engine.rank(terms, hits, RANK_LIMIT);
+        time = metrics.recordSince(Stage.RANK, time);
+        Map<Facet, Map<String, Integer>> counts = engine.facets().counts(hits);
+        metrics.recordSince(Stage.FACETS, time);
+        return new SearchResult(query, engine.store(), ranked, false, counts);
+    }
+}
@@ -0,0 +1,399 @@
+package com.uniapp.search;
+
+import com.uniapp.model.IntArrays;
+import com.uniapp.model.University;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Orders search hits by relevance.
+ * <p>
+ * Scores are a field-weighted BM25 over the name and the state/province (the
+ * dataset has no city field; the state/province is the closest locality),
+ * plus boosts for names that start with the query and for query terms equal
+ * to the first label of one of the university's domains ({@code mit} for
+ * {@code mit.edu}). A query term matches a document term it
+ * is a prefix of, with full weight only for an exact match.
+ * <p>
+ * At index time every document's field tokens are stored as dictionary term
+ * ids together with its precomputed BM25 length norms, so scoring a hit
+ * never tokenizes text: a query term becomes a range of term ids and each of
+ * the hit's few term ids is tested against it. Only the best {@code k} hits
+ * are kept, in a bounded min-heap.
+ */
+public final class Ranker {
+
+    static final float K1 = 1.2f;
+    static final float B = 0.75f;
+    static final float NAME_WEIGHT = 1.0f;
+    static final float STATE_WEIGHT = 0.4f;
+    /** Term frequency credited to a document term the query term is only a prefix of. */
+    static final float PREFIX_MATCH = 0.6f;
+    static final float NAME_PREFIX_BOOST = 2.0f;
+    static final float DOMAIN_BOOST = 3.0f;
+
+    private static final Field NAME = (university, index, out) ->
+            Tokenizer.tokenize(university.name(), term -> out.add(index.termId(term)));
+    private static final Field STATE = (university, index, out) ->
+            Tokenizer.tokenize(university.stateProvince(), term -> out.add(index.termId(term)));
+    private static final Field DOMAIN = (university, index, out) -> {
+        for (String domain : university.domains()) {
+            List<String> labels = Tokenizer.tokenize(domain);
+            if (!labels.isEmpty()) {
+                out.add(index.termId(labels.get(0)));
+            }
+        }
+    };
+
+    private final InvertedIndex index;
+    private final int[] nameStarts;
+    private final int[] nameTerms;
+    private final int[] stateStarts;
+    private final int[] stateTerms;
+    private final int[] domainStarts;
+    private final int[] domainTerms;
+    private final float[] nameNorms;
+    private final float[] stateNorms;
+
+    private Ranker(InvertedIndex index, int[] nameStarts, int[] nameTerms, int[] stateStarts, int[] stateTerms,
+                   int[] domainStarts, int[] domainTerms) {
+        this.index = index;
+        this.nameStarts = nameStarts;
+        this.nameTerms = nameTerms;
+        this.stateStarts = stateStarts;
+        this.stateTerms = stateTerms;
+        this.domainStarts = domainStarts;
+        this.domainTerms = domainTerms;
+        this.nameNorms = norms(nameStarts);
+        this.stateNorms = norms(stateStarts);
+    }
+
+    /** Records the term ids of every document's ranked fields; document {@code i} is {@code universities.get(i)}. */
+    public static Ranker build(List<University> universities, InvertedIndex index) {
+        int n = universities.size();
+        int[] nameStarts = new int[n + 1];
+        int[] stateStarts = new int[n + 1];
+        int[] domainStarts = new int[n + 1];
+        IntArrayList nameTerms = new IntArrayList(n * 4);
+        IntArrayList stateTerms = new IntArrayList(n);
+        IntArrayList domainTerms = new IntArrayList(n * 2);
+        for (int docId = 0; docId < n; docId++) {
+            University university = universities.get(docId);
+            NAME.add(university, index, nameTerms);
+            STATE.add(university, index, stateTerms);
+            DOMAIN.add(university, index, domainTerms);
+            nameStarts[docId + 1] = nameTerms.size();
+            stateStarts[docId + 1] = stateTerms.size();
+            domainStarts[docId + 1] = domainTerms.size();
+        }
+        return new Ranker(index, nameStarts, nameTerms.toArray(), stateStarts, stateTerms.toArray(),
+                domainStarts, domainTerms.toArray());
+    }
+
+    /**
+     * Returns a ranker over the patched index: the fields of changed documents
+     * are tokenized afresh and those of all others copied with their term ids
+     * renumbered. The length norms are recomputed.
+     */
+    Ranker patch(InvertedIndex.Patch patch, DocChanges changes) {
+        int n = changes.documentCount();
+        int[] nameStarts = new int[n + 1];
+        int[] stateStarts = new int[n + 1];
+        int[] domainStarts = new int[n + 1];
+        int[] nameTerms = patchField(this.nameStarts, this.nameTerms, nameStarts, NAME, patch, changes);
+        int[] stateTerms = patchField(this.stateStarts, this.stateTerms, stateStarts, STATE, patch, changes);
+        int[] domainTerms = patchField(this.domainStarts, this.domainTerms, domainStarts, DOMAIN, patch, changes);
+        return new Ranker(patch.index(), nameStarts, nameTerms, stateStarts, stateTerms, domainStarts, domainTerms);
+    }
+
+    private static int[] patchField(int[] starts, int[] termIds, int[] newStarts, Field field,
+                                    InvertedIndex.Patch patch, DocChanges changes) {
+        int[] docIds = changes.docIds();
+        IntArrayList out = new IntArrayList(termIds.length + 16);
+        int c = 0;
+        for (int docId = 0; docId < newStarts.length - 1; docId++) {
+            if (c < docIds.length && docIds[c] == docId) {
+                field.add(changes.after()[c++], patch.index(), out);
+            } else {
+                for (int i = starts[docId]; i < starts[docId + 1]; i++) {
+                    out.add(patch.termId(termIds[i]));
+                }
+            }
+            newStarts[docId + 1] = out.size();
+        }
+        return out.toArray();
+    }
+
+    /**
+     * Returns {@code hits} reordered so that the {@code k} best-scoring hits for
+     * {@code query} come first, best first, followed by the remaining hits in
+     * their original order. Ties are broken by document id.
+     */
+    public int[] promote(String query, int[] hits, int k) {
+        return promote(Tokenizer.tokenizeQuery(query), hits, k);
+    }
+
+    /** Same as {@link #promote(String, int[], int)} for a query already tokenized into {@code tokens}. */
+    public int[] promote(List<String> tokens, int[] hits, int k) {
+        int[] top = top(tokens, hits, k);
+        if (top.length == hits.length) {
+            return top;
+        }
+        long[] promoted = new long[DocSet.words(index.documentCount())];
+        for (int docId : top) {
+            promoted[docId >>> 6] |= 1L << docId;
+        }
+        int[] out = new int[hits.length];
+        System.arraycopy(top, 0, out, 0, top.length);
+        int n = top.length;
+        for (int docId : hits) {
+            if ((promoted[docId >>> 6] & (1L << docId)) == 0) {
+                out[n++] = docId;
+            }
+        }
+        return out;
+    }
+
+    /** Returns the {@code k} best-scoring {@code hits} for {@code query}, best first. */
+    public int[] top(String query, int[] hits, int k) {
+        return top(Tokenizer.tokenizeQuery(query), hits, k);
+    }
+
+    /** Same as {@link #top(String, int[], int)} for a query already tokenized into {@code tokens}. */
+    public int[] top(List<String> tokens, int[] hits, int k) {
+        QueryTerm[] terms = queryTerms(tokens);
+        k = Math.min(k, hits.length);
+        if (k <= 0) {
+            return Postings.EMPTY;
+        }
+        // Min-heap on (score, -docId): the root is the weakest of the current top k.
+        float[] scores = new float[k];
+        int[] ids = new int[k];
+        int size = 0;
+        for (int docId : hits) {
+            float score = score(docId, terms);
+            if (size < k) {
+                scores[size] = score;
+                ids[size] = docId;
+                siftUp(scores, ids, size++);
+            } else if (better(score, docId, scores[0], ids[0])) {
+                scores[0] = score;
+                ids[0] = docId;
+                siftDown(scores, ids, size);
+            }
+        }
+        int[] out = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            out[i] = ids[0];
+            scores[0] = scores[i];
+            ids[0] = ids[i];
+            siftDown(scores, ids, i);
+        }
+        return out;
+    }
+
+    /** Returns the relevance of document {@code docId} to {@code query}. */
+    public float score(String query, int docId) {
+        return score(docId, queryTerms(Tokenizer.tokenizeQuery(query)));
+    }
+
+    private float score(int docId, QueryTerm[] terms) {
+        float score = 0;
+        for (QueryTerm term : terms) {
+            float name = frequency(nameTerms, nameStarts[docId], nameStarts[docId + 1], term);
+            float state = frequency(stateTerms, stateStarts[docId], stateStarts[docId + 1], term);
+            float fields = NAME_WEIGHT * name * (K1 + 1) / (name + nameNorms[docId])
+                    + STATE_WEIGHT * state * (K1 + 1) / (state + stateNorms[docId]);
+            score += term.idf * fields;
+            if (term.exact >= 0 && isDomainLabel(docId, term.exact)) {
+                score += DOMAIN_BOOST;
+            }
+        }
+        if (startsWith(docId, terms)) {
+            score += NAME_PREFIX_BOOST;
+        }
+        return score;
+    }
+
+    /** Returns the position in {@link #nameTerm} of the first term of document {@code docId}'s name. */
+    int nameStart(int docId) {
+        return nameStarts[docId];
+    }
+
+    /** Returns the position in {@link #nameTerm} just past the last term of document {@code docId}'s name. */
+    int nameEnd(int docId) {
+        return nameStarts[docId + 1];
+    }
+
+    /** Returns the dictionary id of the name term at {@code position}. */
+    int nameTerm(int position) {
+        return nameTerms[position];
+    }
+
+    /** Returns whether term {@code termId} is the first label of one of document {@code docId}'s domains. */
+    boolean isDomainLabel(int docId, int termId) {
+        for (int i = domainStarts[docId]; i < domainStarts[docId + 1]; i++) {
+            if (domainTerms[i] == termId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Returns whether the name's leading terms match the query terms in order. */
+    private boolean startsWith(int docId, QueryTerm[] terms) {
+        int start = nameStarts[docId];
+        if (terms.length == 0 || nameStarts[docId + 1] - start < terms.length) {
+            return false;
+        }
+        for (int i = 0; i < terms.length; i++) {
+            if (!terms[i].matches(nameTerms[start + i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static float frequency(int[] termIds, int from, int to, QueryTerm term) {
+        float tf = 0;
+        for (int i = from; i < to; i++) {
+            int id = termIds[i];
+            if (id == term.exact) {
+                tf += 1;
+            } else if (term.matches(id)) {
+                tf += PREFIX_MATCH;
+            }
+        }
+        return tf;
+    }
+
+    private QueryTerm[] queryTerms(List<String> tokens) {
+        QueryTerm[] terms = new QueryTerm[tokens.size()];
+        int documentCount = index.documentCount();
+        for (int i = 0; i < terms.length; i++) {
+            // A token with two spellings matches either range; only the complete-word spelling, the last, is exact.
+            String[] spellings = TermNormalizer.spellings(tokens.get(i));
+            String token = spellings[spellings.length - 1];
+            int from = index.prefixStart(token);
+            int to = index.prefixEnd(token, from);
+            int altFrom = 0;
+            int altTo = 0;
+            if (spellings.length > 1) {
+                altFrom = index.prefixStart(spellings[0]);
+                altTo = index.prefixEnd(spellings[0], altFrom);
+            }
+            int exact = from < to && index.term(from).equals(token) ? from : -1;
+            int df = documentFrequency(from, to, documentCount) + documentFrequency(altFrom, altTo, documentCount);
+            df = Math.min(df, documentCount);
+            float idf = (float) Math.log(1 + (documentCount - df + 0.5) / (df + 0.5));
+            terms[i] = new QueryTerm(from, to, altFrom, altTo, exact, idf);
+        }
+        return terms;
+    }
+
+    /**
+     * Returns an estimate of the number of documents containing a term in
+     * {@code [from, to)}: the sum of the terms' postings lengths, capped at
+     * the document count. A document with several matching terms is counted
+     * more than once, but no postings are merged, so the idf of a short prefix
+     * costs one read per term rather than a union over the whole range.
+     */
+    private int documentFrequency(int from, int to, int documentCount) {
+        long df = 0;
+        for (int termId = from; termId < to && df < documentCount; termId++) {
+            df += index.postings(termId).length;
+        }
+        return (int) Math.min(df, documentCount);
+    }
+
+    /** Returns {@code k1 * (1 - b + b * length / averageLength)} per document. */
+    private static float[] norms(int[] starts) {
+        int n = starts.length - 1;
+        float average = n == 0 ? 0 : (float) starts[n] / n;
+        float[] norms = new float[n];
+        for (int docId = 0; docId < n; docId++) {
+            int length = starts[docId + 1] - starts[docId];
+            norms[docId] = average == 0 ? K1 : K1 * (1 - B + B * length / average);
+        }
+        return norms;
+    }
+
+    private static boolean better(float score, int docId, float otherScore, int otherDocId) {
+        return score > otherScore || (score == otherScore && docId < otherDocId);
+    }
+
+    private static void siftUp(float[] scores, int[] ids, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!better(scores[parent], ids[parent], scores[i], ids[i])) {
+                return;
+            }
+            swap(scores, ids, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(float[] scores, int[] ids, int size) {
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && better(scores[child], ids[child], scores[child + 1], ids[child + 1])) {
+                child++;
+            }
+            if (!better(scores[i], ids[i], scores[child], ids[child])) {
+                return;
+            }
+            swap(scores, ids, i, child);
+            i = child;
+        }
+    }
+
+    private static void swap(float[] scores, int[] ids, int i, int j) {
+        float score = scores[i];
+        scores[i] = scores[j];
+        scores[j] = score;
+        int id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        IntArrays.writeInts(nameStarts, out);
+        IntArrays.writeInts(nameTerms, out);
+        IntArrays.writeInts(stateStarts, out);
+        IntArrays.writeInts(stateTerms, out);
+        IntArrays.writeInts(domainStarts, out);
+        IntArrays.writeInts(domainTerms, out);
+    }
+
+    static Ranker readFrom(ByteBuffer in, InvertedIndex index) {
+        return new Ranker(index, IntArrays.readInts(in), IntArrays.readInts(in),
+                IntArrays.readInts(in), IntArrays.readInts(in),
+                IntArrays.readInts(in), IntArrays.readInts(in));
+    }
+
+    /** Appends the term ids of one ranked field of a university. */
+    @FunctionalInterface
+    private interface Field {
+        void add(University university, InvertedIndex index, IntArrayList out);
+    }
+
+    /**
+     * A query term resolved against the dictionary: it matches the term ids in
+     * {@code [from, to)}, and {@code exact} is the id of the identical term or
+     * {@code -1}.
+     */
+    /** A query term as the dictionary ranges {@code [from, to)} and {@code [altFrom, altTo)} of the terms it prefixes. */
+    private record QueryTerm(int from, int to, int altFrom, int altTo, int exact, float idf) {
+
+        boolean matches(int termId) {
+            return (termId >= from && termId < to) || (termId >= altFrom && termId < altTo);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.uniapp.search;
+
+import com.uniapp.model.University;
+
+/**
+ * The outcome of resolving one free-text name with {@link NameResolver}.
+ *
+ * @param input      the name as given
+ * @param docId      the id of the matched document, or {@code -1} if nothing matched
+ * @param university the matched university, or {@code null}
+ * @param confidence how closely the input matches the university's name, from 0 to 1
+ * @param kind       which resolution step found the match
+ */
+public record Resolution(String input, int docId, University university, float confidence, Kind kind) {
+
+    /** The step of {@link NameResolver#resolve} that produced a match. */
+    public enum Kind {
+        /** Every input term matched by prefix. */
+        EXACT,
+        /** Every input term matched, some only within the fuzzy edit budget. */
+        FUZZY,
+        /** Only some input terms matched the same university. */
+        PARTIAL,
+        /** Nothing matched. */
+        NONE
+    }
+
+    static Resolution none(String input) {
+        return new Resolution(input, -1, null, 0, Kind.NONE);
+    }
+
+    public boolean matched() {
+        return university != null;
+    }
+}
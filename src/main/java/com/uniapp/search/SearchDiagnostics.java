@@ -0,0 +1,97 @@
+package com.uniapp.search;
+
+import com.uniapp.metrics.CacheOutcome;
+import com.uniapp.metrics.Histogram;
+import com.uniapp.metrics.SearchMetrics;
+import com.uniapp.metrics.Stage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Point-in-time view of search performance: stage latencies, query cache
+ * effectiveness, index size and heap usage. Shown by the diagnostics panel
+ * and exported to a file that users can attach to reports of slow searches.
+ *
+ * @param takenAt       when the values were read
+ * @param stages        latency histograms per stage, in nanoseconds
+ * @param cache         query cache outcomes recorded in the metrics
+ * @param documents     number of indexed documents
+ * @param terms         number of distinct indexed terms
+ * @param storeBytes    approximate size of the document store
+ * @param heapUsed      heap in use, in bytes
+ * @param heapCommitted heap reserved from the operating system, in bytes
+ * @param heapMax       maximum heap size, in bytes
+ */
+public record SearchDiagnostics(Instant takenAt,
+                                Map<Stage, Histogram.Snapshot> stages,
+                                QueryCacheStats cache,
+                                int documents,
+                                int terms,
+                                long storeBytes,
+                                long heapUsed,
+                                long heapCommitted,
+                                long heapMax) {
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    /** Reads the current values of {@code metrics} and {@code engine}. */
+    public static SearchDiagnostics capture(SearchMetrics metrics, SearchEngine engine) {
+        Map<Stage, Histogram.Snapshot> stages = new EnumMap<>(Stage.class);
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, metrics.histogram(stage).snapshot());
+        }
+        Runtime runtime = Runtime.getRuntime();
+        long committed = runtime.totalMemory();
+        QueryCacheStats cache = new QueryCacheStats(metrics.count(CacheOutcome.HIT),
+                metrics.count(CacheOutcome.REFINEMENT), metrics.count(CacheOutcome.MISS));
+        return new SearchDiagnostics(Instant.now(), stages, cache,
+                engine.index().documentCount(), engine.index().termCount(), engine.store().byteSize(),
+                committed - runtime.freeMemory(), committed, runtime.maxMemory());
+    }
+
+    /** Returns the values as plain text, latencies in microseconds. */
+    public String format() {
+        StringBuilder out = new StringBuilder(1024);
+        out.append("# search diagnostics ").append(takenAt).append('\n');
+        out.append(String.format(Locale.ROOT, "%-10s %10s %10s %10s %10s %10s %10s %10s%n",
+                "stage", "count", "mean", "p50", "p90", "p99", "p99.9", "max"));
+        for (Map.Entry<Stage, Histogram.Snapshot> entry : stages.entrySet()) {
+            Histogram.Snapshot snapshot = entry.getValue();
+            out.append(String.format(Locale.ROOT, "%-10s %10d %10.1f",
+                    entry.getKey().name().toLowerCase(Locale.ROOT), snapshot.count(), snapshot.mean() / 1e3));
+            for (double percentile : PERCENTILES) {
+                out.append(String.format(Locale.ROOT, " %10.1f", snapshot.percentile(percentile) / 1e3));
+            }
+            out.append(String.format(Locale.ROOT, " %10.1f%n", snapshot.max() / 1e3));
+        }
+        out.append(String.format(Locale.ROOT, "cache      hits %d, refinements %d, misses %d, hit rate %.1f%%, "
+                        + "reuse rate %.1f%%%n", cache.hits(), cache.refinements(), cache.misses(),
+                100 * cache.hitRate(), 100 * cache.reuseRate()));
+        out.append(String.format(Locale.ROOT, "index      %d documents, %d terms, store %.1f MB%n",
+                documents, terms, storeBytes / 1048576.0));
+        out.append(String.format(Locale.ROOT, "heap       used %.1f MB, committed %.1f MB, max %.1f MB%n",
+                heapUsed / 1048576.0, heapCommitted / 1048576.0, heapMax / 1048576.0));
+        return out.toString();
+    }
+
+    /** Writes {@link #format()} to {@code file}, replacing it atomically. */
+    public void export(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            Files.writeString(temp, format(), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
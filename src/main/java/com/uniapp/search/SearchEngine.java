@@ -0,0 +1,269 @@
+package com.uniapp.search;
+
+import com.uniapp.metrics.SearchMetrics;
+import com.uniapp.model.GeoPoint;
+import com.uniapp.model.University;
+import com.uniapp.model.UniversityStore;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entry point for searching a fixed set of universities. Owns the documents,
+ * kept in a columnar {@link UniversityStore}, and the {@link InvertedIndex}
+ * and {@link GeoIndex} built over them.
+ */
+public final class SearchEngine {
+
+    /** Number of recent queries whose hits are kept for reuse. */
+    static final int QUERY_CACHE_SIZE = 256;
+
+    private final UniversityStore store;
+    private final List<University> universities;
+    private final InvertedIndex index;
+    private final FuzzyMatcher fuzzy;
+    private final Ranker ranker;
+    private final QueryCache queryCache;
+    private final FacetIndex facets;
+    private final GeoIndex geo;
+
+    public SearchEngine(List<University> universities) {
+        this(UniversityStore.of(universities), InvertedIndex.build(universities), FacetIndex.build(universities));
+    }
+
+    private SearchEngine(UniversityStore store, InvertedIndex index, FacetIndex facets) {
+        this(store, index, FuzzyMatcher.build(index), Ranker.build(store.asList(), index), facets,
+                GeoIndex.build(store));
+    }
+
+    private SearchEngine(UniversityStore store, InvertedIndex index, FuzzyMatcher fuzzy, Ranker ranker,
+                         FacetIndex facets, GeoIndex geo) {
+        this.store = store;
+        this.universities = store.asList();
+        this.index = index;
+        this.fuzzy = fuzzy;
+        this.ranker = ranker;
+        this.queryCache = new QueryCache(index, QUERY_CACHE_SIZE);
+        this.facets = facets;
+        this.geo = geo;
+    }
+
+    /**
+     * Returns the indexed universities; document id {@code i} is element
+     * {@code i}. Elements are materialized from the store on access.
+     */
+    public List<University> universities() {
+        return universities;
+    }
+
+    /** Returns the columnar storage of the documents, e.g. for flyweight access through {@link UniversityStore#row}. */
+    public UniversityStore store() {
+        return store;
+    }
+
+    public InvertedIndex index() {
+        return index;
+    }
+
+    public FuzzyMatcher fuzzy() {
+        return fuzzy;
+    }
+
+    public Ranker ranker() {
+        return ranker;
+    }
+
+    public QueryCache queryCache() {
+        return queryCache;
+    }
+
+    public FacetIndex facets() {
+        return facets;
+    }
+
+    public GeoIndex geo() {
+        return geo;
+    }
+
+    /**
+     * Returns an engine of {@code size} documents in which document {@code i}
+     * is {@code records.get(i)} where present and the same as in this engine
+     * otherwise. Every id from the current size up to {@code size} must be in
+     * {@code records}; documents at or past {@code size} are dropped.
+     * <p>
+     * Every structure is patched copy-on-write: postings, trigram lists, facet
+     * sets and pooled strings the changes do not touch are shared with this
+     * engine. This engine is not modified, so queries still running against it
+     * finish on a consistent snapshot. Per-document arrays are still copied,
+     * so a patch is much cheaper than a rebuild but not independent of the
+     * dataset size.
+     */
+    public SearchEngine patch(Map<Integer, University> records, int size) {
+        UniversityStore patchedStore = store.patch(records, size);
+        DocChanges changes = DocChanges.of(universities, records, size);
+        InvertedIndex.Patch patch = index.patch(changes);
+        return new SearchEngine(patchedStore, patch.index(), fuzzy.patch(patch), ranker.patch(patch, changes),
+                facets.patch(changes), geo.patch(patchedStore, changes));
+    }
+
+    /**
+     * Returns the universities matching every term of {@code query}, in dataset
+     * order, as a view created by {@link #documents}.
+     */
+    public List<University> search(String query) {
+        return documents(queryCache.search(query));
+    }
+
+    /**
+     * Returns the universities matching {@code query} and {@code selection}, in
+     * dataset order. A blank query lists every university in the selection.
+     */
+    public List<University> search(String query, FacetSelection selection) {
+        return documents(hits(query, selection));
+    }
+
+    /** Returns the ids of the documents matching {@code query} and {@code selection}. */
+    public int[] hits(String query, FacetSelection selection) {
+        return hits(Tokenizer.tokenizeQuery(query), selection);
+    }
+
+    /** Returns the ids of the documents matching the query terms {@code terms} and {@code selection}. */
+    public int[] hits(List<String> terms, FacetSelection selection) {
+        return hits(terms, selection, null);
+    }
+
+    /** Same as {@link #hits(List, FacetSelection)}, counting the query cache outcome in {@code metrics} if given. */
+    int[] hits(List<String> terms, FacetSelection selection, SearchMetrics metrics) {
+        if (terms.isEmpty()) {
+            return selection.isEmpty() ? Postings.EMPTY : Postings.fromBitmap(facets.mask(selection));
+        }
+        return facets.filter(queryCache.search(terms, metrics), selection);
+    }
+
+    /**
+     * Returns {@code hits} with the {@code k} most relevant to {@code query}
+     * moved to the front, best first; the rest keep dataset order. The cost
+     * grows with the number of hits only linearly and with {@code k}
+     * logarithmically, so ranking a broad query stays cheap.
+     */
+    public int[] rank(String query, int[] hits, int k) {
+        return ranker.promote(query, hits, k);
+    }
+
+    /** Same as {@link #rank(String, int[], int)} for a query already tokenized into {@code terms}. */
+    public int[] rank(List<String> terms, int[] hits, int k) {
+        return ranker.promote(terms, hits, k);
+    }
+
+    /**
+     * Returns the {@code n} universities closest to {@code origin} that match
+     * {@code query} and {@code selection}, nearest first. A blank query with an
+     * empty selection considers every university with a location.
+     */
+    public List<GeoMatch> nearest(String query, FacetSelection selection, GeoPoint origin, int n) {
+        return geo.nearest(origin, n, geoFilter(query, selection));
+    }
+
+    /**
+     * Returns up to {@code limit} universities within {@code radiusKm} of
+     * {@code origin} that match {@code query} and {@code selection}, nearest
+     * first.
+     */
+    public List<GeoMatch> within(String query, FacetSelection selection, GeoPoint origin, double radiusKm,
+                                 int limit) {
+        return geo.within(origin, radiusKm, limit, geoFilter(query, selection));
+    }
+
+    private int[] geoFilter(String query, FacetSelection selection) {
+        List<String> terms = Tokenizer.tokenizeQuery(query);
+        return terms.isEmpty() && selection.isEmpty() ? null : hits(terms, selection);
+    }
+
+    /**
+     * Returns a read-only view of the given documents. Elements are resolved on
+     * access, so a view of thousands of hits is created in constant time and
+     * only the rows actually displayed are ever looked up.
+     */
+    public List<University> documents(int[] docIds) {
+        return store.documents(docIds);
+    }
+
+    /**
+     * Writes the store, index, fuzzy trigrams and ranking fields in the layout
+     * read by {@link #readFrom}. The k-d tree is rebuilt from the store's
+     * location columns instead.
+     */
+    void writeTo(DataOutput out) throws IOException {
+        store.writeTo(out);
+        index.writeTo(out);
+        fuzzy.writeTo(out);
+        ranker.writeTo(out);
+    }
+
+    /**
+     * Restores an engine written by {@link #writeTo}. Nothing is tokenized; only
+     * the facet sets and the k-d tree are recomputed, from the store's columns.
+     */
+    static SearchEngine readFrom(ByteBuffer in) throws IOException {
+        UniversityStore store = UniversityStore.readFrom(in);
+        InvertedIndex index = InvertedIndex.readFrom(in);
+        FuzzyMatcher fuzzy = FuzzyMatcher.readFrom(in, index);
+        Ranker ranker = Ranker.readFrom(in, index);
+        return new SearchEngine(store, index, fuzzy, ranker, FacetIndex.build(store), GeoIndex.build(store));
+    }
+
+    /**
+     * Returns up to {@code limit} universities approximately matching
+     * {@code query}, closest first, tolerating misspelled terms.
+     */
+    public List<University> fuzzySearch(String query, int limit) {
+        return fuzzySearch(Tokenizer.tokenizeQuery(query), limit);
+    }
+
+    /** Same as {@link #fuzzySearch(String, int)} for a query already tokenized into {@code terms}. */
+    public List<University> fuzzySearch(List<String> terms, int limit) {
+        return documents(fuzzyHits(terms, limit));
+    }
+
+    /** Returns the ids of the documents {@link #fuzzySearch(List, int)} returns, in the same order. */
+    public int[] fuzzyHits(List<String> terms, int limit) {
+        List<FuzzyMatch> matches = fuzzy.match(terms, limit);
+        int[] docIds = new int[matches.size()];
+        for (int i = 0; i < docIds.length; i++) {
+            docIds[i] = matches.get(i).docId();
+        }
+        return docIds;
+    }
+
+    /**
+     * Builds an engine from records arriving one at a time. {@link #snapshot}
+     * returns a searchable engine over the records added so far, so results can
+     * be shown while the rest of the dataset is still being ingested.
+     */
+    public static final class Builder {
+
+        private final UniversityStore.Builder store = new UniversityStore.Builder();
+        private final InvertedIndex.Builder index = new InvertedIndex.Builder();
+
+        /** Adds {@code university} as the next document. */
+        public Builder add(University university) {
+            store.add(university);
+            index.add(university);
+            return this;
+        }
+
+        /** Returns the number of documents added so far. */
+        public int size() {
+            return store.size();
+        }
+
+        /** Returns an engine over the documents added so far. */
+        public SearchEngine snapshot() {
+            UniversityStore documents = store.build();
+            return new SearchEngine(documents, index.build(), FacetIndex.build(documents));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.uniapp.search;
+
+import com.uniapp.metrics.SearchMetrics;
+import com.uniapp.metrics.Stage;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs searches off the UI thread.
+ * <p>
+ * {@link #submit} only records the query and schedules it after a debounce
+ * delay, so it never blocks the caller. Every submission supersedes the
+ * previous one: a pending search is cancelled before it starts, and a search
+ * already running is discarded once it finishes. Results are handed to the UI
+ * through {@code uiExecutor} (e.g. {@code SwingUtilities::invokeLater}) and the
+ * listener is invoked only if no newer query was submitted in the meantime.
+ * <p>
+ * Queries are answered by a {@link QueryRunner}, the same path headless
+ * callers use, and every completed search records the time of each
+ * {@link Stage} in the pipeline's {@link SearchMetrics}.
+ */
+public final class SearchPipeline implements AutoCloseable {
+
+    private final Executor uiExecutor;
+    private final Consumer<SearchResult> listener;
+    private final long debounceNanos;
+    private final ScheduledThreadPoolExecutor worker;
+    private final QueryRunner runner;
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile SearchEngine engine;
+    private volatile String latestQuery;
+    private volatile FacetSelection selection = FacetSelection.NONE;
+    private Future<?> pending;
+
+    public SearchPipeline(SearchEngine engine, Executor uiExecutor, Consumer<SearchResult> listener,
+                          Duration debounce) {
+        this(engine, uiExecutor, listener, debounce, new SearchMetrics());
+    }
+
+    public SearchPipeline(SearchEngine engine, Executor uiExecutor, Consumer<SearchResult> listener,
+                          Duration debounce, SearchMetrics metrics) {
+        this.engine = engine;
+        this.runner = new QueryRunner(metrics);
+        this.uiExecutor = uiExecutor;
+        this.listener = listener;
+        this.debounceNanos = debounce.toNanos();
+        this.worker = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "uniapp-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+        worker.setRemoveOnCancelPolicy(true);
+    }
+
+    public SearchMetrics metrics() {
+        return runner.metrics();
+    }
+
+    /** Schedules {@code query} after the debounce delay, superseding any earlier query. */
+    public void submit(String query) {
+        schedule(query, debounceNanos);
+    }
+
+    /**
+     * Swaps in a new engine, e.g. a more complete snapshot published while the
+     * dataset is loading, and re-runs the latest query against it immediately.
+     */
+    public void engine(SearchEngine engine) {
+        this.engine = engine;
+        String query = latestQuery;
+        if (query != null) {
+            schedule(query, 0);
+        }
+    }
+
+    /**
+     * Applies a new facet selection and re-runs the latest query immediately;
+     * with no query yet, the selection is browsed as a whole.
+     */
+    public void select(FacetSelection selection) {
+        this.selection = selection;
+        String query = latestQuery;
+        schedule(query != null ? query : "", 0);
+    }
+
+    private synchronized void schedule(String query, long delayNanos) {
+        if (worker.isShutdown()) {
+            return;
+        }
+        latestQuery = query;
+        long id = generation.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        pending = worker.schedule(() -> run(id, query), delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void run(long id, String query) {
+        if (generation.get() != id) {
+            return;
+        }
+        long start = System.nanoTime();
+        SearchResult result = runner.run(engine, query, selection, () -> generation.get() != id);
+        if (result == null || generation.get() != id) {
+            return;
+        }
+        uiExecutor.execute(() -> {
+            if (generation.get() == id) {
+                long render = System.nanoTime();
+                listener.accept(result);
+                runner.metrics().recordSince(Stage.RENDER, render);
+                runner.metrics().recordSince(Stage.TOTAL, start);
+            }
+        });
+    }
+
+    /** Stops the worker; queries submitted afterwards are ignored. */
+    @Override
+    public synchronized void close() {
+        generation.incrementAndGet();
+        worker.shutdownNow();
+    }
+}
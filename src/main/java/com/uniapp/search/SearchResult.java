@@ -0,0 +1,33 @@
+package com.uniapp.search;
+
+import com.uniapp.model.University;
+import com.uniapp.model.UniversityStore;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The result set published by {@link SearchPipeline} for one query.
+ *
+ * @param query       the query as typed
+ * @param store       the documents of the engine that answered the query
+ * @param docIds      the ids of the matching documents in {@code store}, in
+ *                    result order
+ * @param fuzzy       whether the results came from approximate matching
+ *                    because the query had no exact matches
+ * @param facetCounts the number of results per value of each facet; empty
+ *                    for fuzzy results
+ */
+public record SearchResult(String query, UniversityStore store, int[] docIds, boolean fuzzy,
+                           Map<Facet, Map<String, Integer>> facetCounts) {
+
+    /** Returns the number of matching universities. */
+    public int size() {
+        return docIds.length;
+    }
+
+    /** Returns the matching universities, each materialized from the store on access. */
+    public List<University> universities() {
+        return store.documents(docIds);
+    }
+}
@@ -0,0 +1,193 @@
+package com.uniapp.search;
+
+import java.text.Normalizer;
+
+/**
+ * Folds a term to the form it is indexed and searched under: lower case,
+ * without diacritics, and with Greek and Cyrillic letters transliterated to
+ * Latin, so {@code Πανεπιστήμιο} is indexed as {@code panepistimio} and
+ * {@code Université} as {@code universite}.
+ * <p>
+ * The {@link Tokenizer} applies it to every term, once per field when the
+ * index is built and once per query term, so the dictionary only ever holds
+ * folded terms and comparisons never normalize. Pure ASCII terms, the vast
+ * majority, skip Unicode decomposition entirely.
+ * <p>
+ * The last term of a query may still be incomplete, and a Greek αυ, ευ or ηυ
+ * at its end is spelled by a letter not typed yet. {@link #normalizePrefix}
+ * leaves such a υ {@linkplain #PENDING_UPSILON pending} and {@link #spellings}
+ * expands it to both of its possible spellings.
+ */
+public final class TermNormalizer {
+
+    private static final char FIRST_MAPPED = '\u0370';
+    private static final char LAST_MAPPED = '\u04FF';
+    /** Greek voiceless consonants, before which ELOT 743 spells the υ of αυ, ευ and ηυ as {@code f}. */
+    private static final String VOICELESS = "θκξπστφχψς";
+    /**
+     * Stands for the υ of a digraph ending an incomplete term, which becomes
+     * {@code v} or {@code f} depending on the next letter. It never occurs in
+     * indexed terms.
+     */
+    static final char PENDING_UPSILON = 'υ';
+
+    /** Latin spelling of each lower-case Greek and Cyrillic letter, indexed by {@code c - FIRST_MAPPED}. */
+    private static final String[] TRANSLITERATION = new String[LAST_MAPPED - FIRST_MAPPED + 1];
+
+    static {
+        // Greek, after ELOT 743; the diphthongs are handled in normalize().
+        map("αβγδεζηθικλμνξοπρστυφχψως",
+                "a", "v", "g", "d", "e", "z", "i", "th", "i", "k", "l", "m", "n", "x", "o", "p", "r", "s",
+                "t", "y", "f", "ch", "ps", "o", "s");
+        // Russian, Belarusian, Ukrainian, Serbian and Macedonian Cyrillic.
+        map("абвгдеёжзийклмнопрстуфхцчшщъыьэюя",
+                "a", "b", "v", "g", "d", "e", "e", "zh", "z", "i", "y", "k", "l", "m", "n", "o", "p", "r", "s",
+                "t", "u", "f", "kh", "ts", "ch", "sh", "shch", "", "y", "", "e", "yu", "ya");
+        map("ієґўђјљњћџѓќѕ",
+                "i", "ye", "g", "u", "dj", "j", "lj", "nj", "c", "dz", "gj", "kj", "dz");
+    }
+
+    private TermNormalizer() {
+    }
+
+    private static void map(String letters, String... latin) {
+        for (int i = 0; i < letters.length(); i++) {
+            TRANSLITERATION[letters.charAt(i) - FIRST_MAPPED] = latin[i];
+        }
+    }
+
+    /**
+     * Returns the folded form of the complete word {@code term}, which may be
+     * empty if it consisted only of signs such as {@code ъ}.
+     */
+    public static String normalize(String term) {
+        return normalize(term, true);
+    }
+
+    /**
+     * Returns the folded form of {@code term} as the prefix of a word still
+     * being typed. It differs from {@link #normalize} only when {@code term}
+     * ends in αυ, ευ or ηυ: the word end does not yet imply {@code f}, so the
+     * υ is left as {@link #PENDING_UPSILON}.
+     */
+    public static String normalizePrefix(String term) {
+        return normalize(term, false);
+    }
+
+    /**
+     * Returns the indexed spellings a folded query term stands for: the term
+     * itself, or, for a term ending in {@link #PENDING_UPSILON}, its
+     * {@code v} and {@code f} spellings.
+     */
+    static String[] spellings(String term) {
+        int last = term.length() - 1;
+        if (last < 0 || term.charAt(last) != PENDING_UPSILON) {
+            return new String[] {term};
+        }
+        String stem = term.substring(0, last);
+        return new String[] {stem + 'v', stem + 'f'};
+    }
+
+    private static String normalize(String term, boolean complete) {
+        if (isAscii(term)) {
+            return asciiLowerCase(term);
+        }
+        String decomposed = Normalizer.normalize(term, Normalizer.Form.NFD);
+        StringBuilder out = new StringBuilder(decomposed.length() + 4);
+        int length = decomposed.length();
+        for (int i = 0; i < length; i++) {
+            char c = Character.toLowerCase(decomposed.charAt(i));
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (c == 'υ' && out.length() > 0 && isGreekVowelBefore(decomposed, i)) {
+                // ου is "ou"; αυ, ευ and ηυ are "av", "ev" and "iv", or "af", "ef" and "if" before a
+                // voiceless consonant and at the end of the word.
+                char previous = out.charAt(out.length() - 1);
+                char next = nextLetter(decomposed, i);
+                out.append(previous == 'o' ? 'u'
+                        : next == 0 ? (complete ? 'f' : PENDING_UPSILON)
+                        : VOICELESS.indexOf(next) >= 0 ? 'f' : 'v');
+                continue;
+            }
+            char mark = i + 1 < length ? decomposed.charAt(i + 1) : 0;
+            if ((c == 'и' && mark == '\u0306') || (c == 'і' && mark == '\u0308')) {
+                // й and ї decompose into a base letter and a mark but are letters of their own.
+                out.append(c == 'и' ? "y" : "yi");
+                i++;
+                continue;
+            }
+            if (c >= FIRST_MAPPED && c <= LAST_MAPPED && TRANSLITERATION[c - FIRST_MAPPED] != null) {
+                out.append(TRANSLITERATION[c - FIRST_MAPPED]);
+            } else {
+                out.append(switch (c) {
+                    case 'ß' -> "ss";
+                    case 'æ' -> "ae";
+                    case 'œ' -> "oe";
+                    case 'ø' -> "o";
+                    case 'ł' -> "l";
+                    case 'đ' -> "d";
+                    case 'ð' -> "d";
+                    case 'þ' -> "th";
+                    case 'ı' -> "i";
+                    default -> String.valueOf(c);
+                });
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Returns whether the υ at position {@code i} of the decomposed {@code text}
+     * forms a digraph with a preceding α, ε, η or ο. A diaeresis on the υ
+     * ({@code ϋ}) keeps the two letters apart.
+     */
+    private static boolean isGreekVowelBefore(String text, int i) {
+        if (i + 1 < text.length() && text.charAt(i + 1) == '\u0308') {
+            return false;
+        }
+        for (int j = i - 1; j >= 0; j--) {
+            char c = Character.toLowerCase(text.charAt(j));
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                return c == 'α' || c == 'ε' || c == 'η' || c == 'ο';
+            }
+        }
+        return false;
+    }
+
+    /** Returns the lower-case letter after position {@code i} of the decomposed {@code text}, or 0 if there is none. */
+    private static char nextLetter(String text, int i) {
+        for (int j = i + 1; j < text.length(); j++) {
+            char c = Character.toLowerCase(text.charAt(j));
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isAscii(String term) {
+        for (int i = 0; i < term.length(); i++) {
+            if (term.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String asciiLowerCase(String term) {
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                char[] chars = term.toCharArray();
+                for (int j = i; j < chars.length; j++) {
+                    if (chars[j] >= 'A' && chars[j] <= 'Z') {
+                        chars[j] += 'a' - 'A';
+                    }
+                }
+                return new String(chars);
+            }
+        }
+        return term;
+    }
+}
@@ -0,0 +1,88 @@
+package com.uniapp.search;
+
+import com.uniapp.model.University;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Splits institution fields and user queries into search terms folded by
+ * {@link TermNormalizer}.
+ * <p>
+ * A term is a maximal run of letters or digits, including any combining
+ * marks attached to them. Domains are additionally
+ * indexed as a whole (e.g. {@code uoa.gr}) so that users can paste a domain
+ * into the search box.
+ */
+public final class Tokenizer {
+
+    private Tokenizer() {
+    }
+
+    /** Returns the terms of {@code text}, each a complete word, in the order they appear. */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        tokenize(text, terms::add);
+        return terms;
+    }
+
+    /**
+     * Returns the terms of a query in the order they were typed. Unless a
+     * separator follows it, the last term is folded by
+     * {@link TermNormalizer#normalizePrefix} because the user may still be
+     * typing it.
+     */
+    public static List<String> tokenizeQuery(String text) {
+        List<String> terms = new ArrayList<>();
+        tokenize(text, terms::add, true);
+        return terms;
+    }
+
+    /** Emits every term of {@code text}, each a complete word, to {@code sink}. */
+    public static void tokenize(String text, Consumer<String> sink) {
+        tokenize(text, sink, false);
+    }
+
+    private static void tokenize(String text, Consumer<String> sink, boolean query) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c) || (start >= 0 && Character.getType(c) == Character.NON_SPACING_MARK)) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                emit(TermNormalizer.normalize(text.substring(start, i)), sink);
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            String last = text.substring(start);
+            emit(query ? TermNormalizer.normalizePrefix(last) : TermNormalizer.normalize(last), sink);
+        }
+    }
+
+    private static void emit(String normalized, Consumer<String> sink) {
+        if (!normalized.isEmpty()) {
+            sink.accept(normalized);
+        }
+    }
+
+    /** Emits the terms of every searchable field of {@code university}. */
+    public static void tokenize(University university, Consumer<String> sink) {
+        tokenize(university.name(), sink);
+        tokenize(university.country(), sink);
+        tokenize(university.alphaTwoCode(), sink);
+        tokenize(university.stateProvince(), sink);
+        for (String domain : university.domains()) {
+            tokenize(domain, sink);
+            sink.accept(domain.toLowerCase(Locale.ROOT));
+        }
+    }
+}
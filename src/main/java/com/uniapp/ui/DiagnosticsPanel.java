@@ -0,0 +1,131 @@
+package com.uniapp.ui;
+
+import com.uniapp.metrics.SearchMetrics;
+import com.uniapp.search.SearchDiagnostics;
+import com.uniapp.search.SearchEngine;
+
+import javax.swing.AbstractAction;
+import javax.swing.JButton;
+import javax.swing.JComponent;
+import javax.swing.JDialog;
+import javax.swing.JFileChooser;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JRootPane;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.text.DefaultCaret;
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.awt.Point;
+import java.awt.Window;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.io.File;
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * Hidden panel showing {@link SearchDiagnostics}, refreshed every second while
+ * it is visible. {@link #install} opens it with Ctrl+Shift+D; it also exports
+ * the current values to a text file for bug reports.
+ */
+@SuppressWarnings("serial")
+public final class DiagnosticsPanel extends JPanel {
+
+    private static final int REFRESH_MILLIS = 1000;
+    private static final KeyStroke SHORTCUT =
+            KeyStroke.getKeyStroke(KeyEvent.VK_D, InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK);
+
+    private final SearchMetrics metrics;
+    private final Supplier<SearchEngine> engine;
+    private final JTextArea text = new JTextArea(16, 90);
+    private final JScrollPane scroll = new JScrollPane(text);
+    private final Timer timer = new Timer(REFRESH_MILLIS, e -> refresh());
+
+    /** Creates a panel over {@code metrics} and whatever engine {@code engine} currently returns. */
+    public DiagnosticsPanel(SearchMetrics metrics, Supplier<SearchEngine> engine) {
+        super(new BorderLayout());
+        this.metrics = metrics;
+        this.engine = engine;
+        text.setEditable(false);
+        text.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        // Replacing the text must not move the caret, or every refresh would scroll the view.
+        ((DefaultCaret) text.getCaret()).setUpdatePolicy(DefaultCaret.NEVER_UPDATE);
+        add(scroll, BorderLayout.CENTER);
+
+        JButton reset = new JButton("Reset");
+        reset.addActionListener(e -> {
+            metrics.reset();
+            refresh();
+        });
+        JButton export = new JButton("Export\u2026");
+        export.addActionListener(e -> export());
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttons.add(reset);
+        buttons.add(export);
+        add(buttons, BorderLayout.SOUTH);
+    }
+
+    /** Binds Ctrl+Shift+D in {@code rootPane} to show or hide {@code panel} in a dialog. */
+    public static void install(JRootPane rootPane, DiagnosticsPanel panel) {
+        rootPane.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(SHORTCUT, "uniapp.diagnostics");
+        rootPane.getActionMap().put("uniapp.diagnostics", new AbstractAction() {
+            private JDialog dialog;
+
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (dialog == null) {
+                    Window owner = SwingUtilities.getWindowAncestor(rootPane);
+                    dialog = new JDialog(owner, "Diagnostics");
+                    dialog.setContentPane(panel);
+                    dialog.pack();
+                    dialog.setLocationRelativeTo(owner);
+                }
+                if (dialog.isVisible()) {
+                    // Disposing rather than hiding removes the panel's peer, which stops its refresh timer.
+                    dialog.dispose();
+                } else {
+                    dialog.setVisible(true);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        refresh();
+        scroll.getViewport().setViewPosition(new Point());
+        timer.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        timer.stop();
+        super.removeNotify();
+    }
+
+    private void refresh() {
+        text.setText(SearchDiagnostics.capture(metrics, engine.get()).format());
+    }
+
+    private void export() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("uniapp-diagnostics.txt"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try {
+            SearchDiagnostics.capture(metrics, engine.get()).export(chooser.getSelectedFile().toPath());
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Could not export diagnostics: " + e.getMessage(),
+                    "Diagnostics", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
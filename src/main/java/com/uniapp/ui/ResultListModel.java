@@ -0,0 +1,59 @@
+package com.uniapp.ui;
+
+import com.uniapp.model.University;
+import com.uniapp.model.UniversityStore;
+import com.uniapp.search.SearchResult;
+
+import javax.swing.AbstractListModel;
+
+/**
+ * List model over the current {@link SearchResult}. It holds the result's
+ * document ids rather than records, so showing a result of any size is
+ * constant time.
+ * <p>
+ * {@link #getElementAt} returns one reused {@link UniversityStore.Row}
+ * positioned on the requested document, which the renderer reads in place:
+ * painting a row creates no record. The row is only valid until the next call;
+ * use {@link #universityAt} for a record to keep, e.g. the selection.
+ */
+@SuppressWarnings("serial")
+public final class ResultListModel extends AbstractListModel<UniversityStore.Row> {
+
+    private static final int[] NO_DOCUMENTS = new int[0];
+
+    private UniversityStore store;
+    private UniversityStore.Row row;
+    private int[] docIds = NO_DOCUMENTS;
+
+    /** Replaces the displayed results. Must be called on the event dispatch thread. */
+    public void show(SearchResult result) {
+        int previous = docIds.length;
+        if (result.store() != store) {
+            store = result.store();
+            row = store.row();
+        }
+        docIds = result.docIds();
+        // One coarse event: per-row events would make the list re-measure every row.
+        if (previous > 0) {
+            fireIntervalRemoved(this, 0, previous - 1);
+        }
+        if (docIds.length > 0) {
+            fireIntervalAdded(this, 0, docIds.length - 1);
+        }
+    }
+
+    @Override
+    public int getSize() {
+        return docIds.length;
+    }
+
+    @Override
+    public UniversityStore.Row getElementAt(int index) {
+        return row.at(docIds[index]);
+    }
+
+    /** Returns the university at {@code index} as a record of its own. */
+    public University universityAt(int index) {
+        return store.get(docIds[index]);
+    }
+}
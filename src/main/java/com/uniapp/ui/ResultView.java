@@ -0,0 +1,59 @@
+package com.uniapp.ui;
+
+import com.uniapp.model.UniversityStore;
+import com.uniapp.search.SearchResult;
+
+import javax.swing.JList;
+import javax.swing.JScrollPane;
+import javax.swing.ListSelectionModel;
+import java.awt.Dimension;
+import java.util.function.Consumer;
+
+/**
+ * Scrollable list of search results whose cost is bounded by the viewport.
+ * <p>
+ * {@link JList} already paints only the rows inside the visible rectangle, but
+ * without a fixed cell height it measures every row to lay itself out. The
+ * view fixes the cell size from a prototype row, so layout is a multiplication
+ * and a result of any size renders only the handful of visible rows, each read
+ * in place from the engine's store.
+ */
+@SuppressWarnings("serial")
+public final class ResultView extends JScrollPane implements Consumer<SearchResult> {
+
+    private static final String PROTOTYPE = "Prototype University of Applied Sciences \u2014 Province, Country";
+
+    private final ResultListModel model = new ResultListModel();
+    private final JList<UniversityStore.Row> list = new JList<>(model);
+
+    public ResultView() {
+        UniversityCellRenderer renderer = new UniversityCellRenderer();
+        list.setCellRenderer(renderer);
+        // The rows are flyweights, so the prototype is measured as text rather than set as a value.
+        Dimension cell = renderer.getListCellRendererComponent(list, PROTOTYPE, -1, false, false).getPreferredSize();
+        list.setFixedCellWidth(cell.width);
+        list.setFixedCellHeight(cell.height);
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        setViewportView(list);
+        getVerticalScrollBar().setUnitIncrement(list.getFixedCellHeight());
+    }
+
+    public JList<UniversityStore.Row> resultList() {
+        return list;
+    }
+
+    /** Returns the model; {@link ResultListModel#universityAt} resolves a selected index to a record. */
+    public ResultListModel model() {
+        return model;
+    }
+
+    /** Displays {@code result}, scrolled to the top. Must be called on the event dispatch thread. */
+    @Override
+    public void accept(SearchResult result) {
+        model.show(result);
+        list.clearSelection();
+        if (model.getSize() > 0) {
+            list.ensureIndexIsVisible(0);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.uniapp.ui;
+
+import com.uniapp.model.UniversityStore;
+
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JList;
+import java.awt.Component;
+
+/**
+ * Renders a result row as plain text. A single label is reused for every row,
+ * fields are read through the model's {@link UniversityStore.Row} without
+ * building a record, and plain text avoids the cost of Swing's HTML view on
+ * each paint. Any other value, such as the prototype, is shown as its string.
+ */
+@SuppressWarnings("serial")
+final class UniversityCellRenderer extends DefaultListCellRenderer {
+
+    private final StringBuilder text = new StringBuilder(96);
+
+    @Override
+    public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                  boolean isSelected, boolean cellHasFocus) {
+        super.getListCellRendererComponent(list, format(value), index, isSelected, cellHasFocus);
+        return this;
+    }
+
+    private String format(Object value) {
+        if (!(value instanceof UniversityStore.Row row)) {
+            return String.valueOf(value);
+        }
+        text.setLength(0);
+        text.append(row.name()).append(" \u2014 ");
+        String stateProvince = row.stateProvince();
+        if (stateProvince != null) {
+            text.append(stateProvince).append(", ");
+        }
+        text.append(row.country());
+        return text.toString();
+    }
+}
@@ -0,0 +1,12 @@
+package com.uniapp.workspace;
+
+/**
+ * A list of universities the user keeps in the {@link Workspace}.
+ */
+public enum Shortlist {
+
+    /** Universities the user starred. */
+    FAVOURITES,
+    /** Universities the user placed side by side for comparison. */
+    COMPARISON
+}
@@ -0,0 +1,445 @@
+package com.uniapp.workspace;
+
+import com.uniapp.model.University;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The user's favourites and comparison lists, persisted in a local journal
+ * file.
+ * <p>
+ * The file is a fixed header followed by a log of {@code ADD} and
+ * {@code REMOVE} entries. Changes are applied in memory at once and queued;
+ * a background thread appends the queue in one write a short delay after
+ * the first change, or as soon as it grows past a batch size, so a burst of
+ * clicks costs a single write and the caller never waits for the disk.
+ * Appends are committed by rewriting the header, as in the dataset cache.
+ * <p>
+ * Opening memory-maps the journal and only walks the entry headers, keyed by
+ * a 64-bit hash of each university's name and country; names are decoded
+ * when a {@linkplain #page page} containing them is first read. The journal
+ * is compacted on open once stale entries outnumber live ones.
+ * <pre>
+ * int magic | int format | long committedEnd | int liveCount | int entryCount | long reserved
+ * ADD:    byte op | byte list | long keyHash | int length | name | country | long addedMillis
+ * REMOVE: byte op | byte list | long keyHash
+ * </pre>
+ */
+public final class Workspace implements Closeable {
+
+    static final int MAGIC = 0x554E4957; // "UNIW"
+    static final int FORMAT = 1;
+    static final int HEADER_SIZE = 32;
+
+    /** Delay between the first queued change and the write that persists it. */
+    static final long FLUSH_DELAY_MILLIS = 500;
+    /** Queued bytes that trigger a write without waiting for the delay. */
+    static final int BATCH_SIZE = 64 * 1024;
+
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+    private static final int ADD_HEADER = 1 + 1 + 8 + 4;
+    private static final int REMOVE_SIZE = 1 + 1 + 8;
+
+    private final Path file;
+    private final Map<Shortlist, LinkedHashMap<Long, Slot>> lists = new EnumMap<>(Shortlist.class);
+    private final ScheduledThreadPoolExecutor flusher;
+    private final Object ioLock = new Object();
+
+    private ByteBuffer journal;
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private int pendingEntries;
+    private Future<?> scheduledFlush;
+    private volatile IOException failure;
+    private boolean closed;
+
+    // Guarded by ioLock.
+    private Header committed;
+
+    private Workspace(Path file) {
+        this.file = file;
+        for (Shortlist list : Shortlist.values()) {
+            lists.put(list, new LinkedHashMap<>());
+        }
+        this.flusher = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "uniapp-workspace");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.setRemoveOnCancelPolicy(true);
+        flusher.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Opens the workspace stored in {@code file}, which is created on the
+     * first write if it does not exist.
+     *
+     * @throws IOException if the file exists but is not a valid workspace journal
+     */
+    public static Workspace open(Path file) throws IOException {
+        Workspace workspace = new Workspace(file);
+        workspace.scan();
+        return workspace;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /** Adds {@code university} to the end of {@code list}; returns {@code false} if it is already there. */
+    public synchronized boolean add(Shortlist list, University university) {
+        return addAll(list, List.of(university)) == 1;
+    }
+
+    /** Adds every university not yet in {@code list}, in order, and returns how many were added. */
+    public synchronized int addAll(Shortlist list, Collection<University> universities) {
+        checkOpen();
+        LinkedHashMap<Long, Slot> slots = lists.get(list);
+        long now = System.currentTimeMillis();
+        int added = 0;
+        for (University university : universities) {
+            long hash = hash(university.name(), university.country());
+            if (slots.containsKey(hash)) {
+                continue;
+            }
+            WorkspaceEntry entry = WorkspaceEntry.of(university, now);
+            slots.put(hash, new Slot(-1, entry));
+            writeAdd(list, hash, entry, pending);
+            pendingEntries++;
+            added++;
+        }
+        if (added > 0) {
+            scheduleFlush();
+        }
+        return added;
+    }
+
+    /** Removes {@code university} from {@code list}; returns {@code false} if it was not there. */
+    public synchronized boolean remove(Shortlist list, University university) {
+        checkOpen();
+        long hash = hash(university.name(), university.country());
+        if (lists.get(list).remove(hash) == null) {
+            return false;
+        }
+        writeRemove(list, hash, pending);
+        pendingEntries++;
+        scheduleFlush();
+        return true;
+    }
+
+    public synchronized boolean contains(Shortlist list, University university) {
+        return lists.get(list).containsKey(hash(university.name(), university.country()));
+    }
+
+    public synchronized int size(Shortlist list) {
+        return lists.get(list).size();
+    }
+
+    /**
+     * Returns up to {@code limit} entries of {@code list} starting at
+     * {@code offset}, in the order they were added. Only the returned entries
+     * are decoded from the journal.
+     */
+    public synchronized List<WorkspaceEntry> page(Shortlist list, int offset, int limit) {
+        LinkedHashMap<Long, Slot> slots = lists.get(list);
+        List<WorkspaceEntry> page = new ArrayList<>(Math.max(0, Math.min(limit, slots.size() - offset)));
+        Iterator<Slot> it = slots.values().iterator();
+        for (int i = 0; i < offset && it.hasNext(); i++) {
+            it.next();
+        }
+        while (page.size() < limit && it.hasNext()) {
+            Slot slot = it.next();
+            if (slot.entry == null) {
+                slot.entry = readEntry(journal, slot.offset);
+            }
+            page.add(slot.entry);
+        }
+        return page;
+    }
+
+    /**
+     * Writes every queued change now.
+     *
+     * @throws IOException if this or an earlier background write failed
+     */
+    public void flush() throws IOException {
+        synchronized (ioLock) {
+            byte[] delta;
+            int entries;
+            int live;
+            synchronized (this) {
+                IOException previous = failure;
+                if (previous != null) {
+                    failure = null;
+                    throw previous;
+                }
+                if (pendingEntries == 0) {
+                    return;
+                }
+                delta = pending.toByteArray();
+                entries = pendingEntries;
+                live = liveCount();
+                pending = new ByteArrayOutputStream();
+                pendingEntries = 0;
+            }
+            append(delta, entries, live);
+        }
+    }
+
+    /** Writes the queued changes and stops the background writer. */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        // Lets a write in progress finish; close() writes whatever it left queued.
+        flusher.shutdown();
+        flush();
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Workspace is closed");
+        }
+    }
+
+    private void scheduleFlush() {
+        if (pending.size() >= BATCH_SIZE) {
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+            }
+            scheduledFlush = flusher.submit(this::flushInBackground);
+        } else if (scheduledFlush == null || scheduledFlush.isDone()) {
+            scheduledFlush = flusher.schedule(this::flushInBackground, FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flushInBackground() {
+        try {
+            flush();
+        } catch (IOException e) {
+            // Reported by the next flush() or close().
+            failure = e;
+        }
+    }
+
+    private int liveCount() {
+        int live = 0;
+        for (LinkedHashMap<Long, Slot> slots : lists.values()) {
+            live += slots.size();
+        }
+        return live;
+    }
+
+    /** Maps the journal and indexes the live entries without decoding them, compacting it first if needed. */
+    private void scan() throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header header = readHeader(channel);
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, header.committedEnd);
+            buffer.position(HEADER_SIZE);
+            while (buffer.hasRemaining()) {
+                int offset = buffer.position();
+                if (buffer.remaining() < REMOVE_SIZE) {
+                    throw new IOException("Truncated workspace entry at offset " + offset);
+                }
+                byte op = buffer.get();
+                int ordinal = buffer.get();
+                if (ordinal < 0 || ordinal >= Shortlist.values().length) {
+                    throw new IOException("Corrupt workspace list " + ordinal + " at offset " + offset);
+                }
+                LinkedHashMap<Long, Slot> slots = lists.get(Shortlist.values()[ordinal]);
+                long hash = buffer.getLong();
+                if (op == ADD) {
+                    int length = buffer.remaining() >= 4 ? buffer.getInt() : -1;
+                    if (length < 0 || length > buffer.remaining()) {
+                        throw new IOException("Corrupt workspace entry length at offset " + offset);
+                    }
+                    buffer.position(buffer.position() + length);
+                    slots.put(hash, new Slot(offset, null));
+                } else if (op == REMOVE) {
+                    slots.remove(hash);
+                } else {
+                    throw new IOException("Corrupt workspace entry " + op + " at offset " + offset);
+                }
+            }
+            journal = buffer;
+            synchronized (ioLock) {
+                committed = header;
+            }
+            if (header.entryCount > 2 * liveCount() + 64) {
+                compact();
+            }
+        }
+    }
+
+    /** Rewrites the journal with only the live entries and replaces the file atomically. */
+    private void compact() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        int live = 0;
+        for (Map.Entry<Shortlist, LinkedHashMap<Long, Slot>> list : lists.entrySet()) {
+            for (Map.Entry<Long, Slot> slot : list.getValue().entrySet()) {
+                WorkspaceEntry entry = slot.getValue().entry != null
+                        ? slot.getValue().entry : readEntry(journal, slot.getValue().offset);
+                writeAdd(list.getKey(), slot.getKey(), entry, body);
+                live++;
+            }
+        }
+        Header header = new Header(HEADER_SIZE + body.size(), live, live);
+        Path parent = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                writeFully(channel, header.encode(), 0);
+                writeFully(channel, ByteBuffer.wrap(body.toByteArray()), HEADER_SIZE);
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        for (LinkedHashMap<Long, Slot> slots : lists.values()) {
+            slots.clear();
+        }
+        scan();
+    }
+
+    private void append(byte[] delta, int entries, int live) throws IOException {
+        if (committed == null) {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            committed = new Header(HEADER_SIZE, 0, 0);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                writeFully(channel, committed.encode(), 0);
+            }
+        }
+        Header next = new Header(committed.committedEnd + delta.length, live, committed.entryCount + entries);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            // Drop anything a crashed write may have left past the committed end.
+            channel.truncate(committed.committedEnd);
+            writeFully(channel, ByteBuffer.wrap(delta), committed.committedEnd);
+            channel.force(false);
+            writeFully(channel, next.encode(), 0);
+            channel.force(true);
+        }
+        committed = next;
+    }
+
+    private Header readHeader(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) {
+                throw new IOException("Truncated workspace header in " + file);
+            }
+        }
+        buffer.flip();
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+            throw new IOException("Not a workspace file: " + file);
+        }
+        Header header = new Header(buffer.getLong(), buffer.getInt(), buffer.getInt());
+        if (header.committedEnd < HEADER_SIZE || header.committedEnd > channel.size()) {
+            throw new IOException("Corrupt workspace header in " + file);
+        }
+        return header;
+    }
+
+    private static void writeAdd(Shortlist list, long hash, WorkspaceEntry entry, ByteArrayOutputStream out) {
+        byte[] name = entry.name().getBytes(StandardCharsets.UTF_8);
+        byte[] country = entry.country().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(ADD_HEADER + 4 + name.length + 4 + country.length + 8);
+        buffer.put(ADD).put((byte) list.ordinal()).putLong(hash).putInt(buffer.capacity() - ADD_HEADER)
+                .putInt(name.length).put(name).putInt(country.length).put(country).putLong(entry.addedMillis());
+        out.write(buffer.array(), 0, buffer.capacity());
+    }
+
+    private static void writeRemove(Shortlist list, long hash, ByteArrayOutputStream out) {
+        ByteBuffer buffer = ByteBuffer.allocate(REMOVE_SIZE);
+        buffer.put(REMOVE).put((byte) list.ordinal()).putLong(hash);
+        out.write(buffer.array(), 0, REMOVE_SIZE);
+    }
+
+    private static WorkspaceEntry readEntry(ByteBuffer journal, int offset) {
+        ByteBuffer in = journal.duplicate().position(offset + ADD_HEADER);
+        try {
+            String name = readString(in);
+            String country = readString(in);
+            return new WorkspaceEntry(name, country, in.getLong());
+        } catch (RuntimeException e) {
+            throw new UncheckedIOException(new IOException("Corrupt workspace entry at offset " + offset, e));
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /** Returns the 64-bit FNV-1a hash identifying the university with this name and country. */
+    static long hash(String name, String country) {
+        long hash = 0xcbf29ce484222325L;
+        hash = hash(hash, name);
+        hash = (hash ^ '\u001F') * 0x100000001b3L;
+        return hash(hash, country);
+    }
+
+    private static long hash(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /** A live entry: its journal offset, and the entry itself once decoded or if not yet written. */
+    private static final class Slot {
+
+        final int offset;
+        WorkspaceEntry entry;
+
+        Slot(int offset, WorkspaceEntry entry) {
+            this.offset = offset;
+            this.entry = entry;
+        }
+    }
+
+    private record Header(long committedEnd, int liveCount, int entryCount) {
+
+        ByteBuffer encode() {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+            buffer.putInt(MAGIC).putInt(FORMAT).putLong(committedEnd).putInt(liveCount).putInt(entryCount)
+                    .putLong(0);
+            return buffer.flip();
+        }
+    }
+}
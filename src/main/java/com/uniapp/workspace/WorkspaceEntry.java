@@ -0,0 +1,31 @@
+package com.uniapp.workspace;
+
+import com.uniapp.model.University;
+
+import java.util.Objects;
+
+/**
+ * A university kept in a {@link Shortlist}. Entries are identified by name and
+ * country, which stay stable across dataset versions, rather than by document
+ * id.
+ *
+ * @param name        the institution name
+ * @param country     the country name
+ * @param addedMillis when the entry was added, in milliseconds since the epoch
+ */
+public record WorkspaceEntry(String name, String country, long addedMillis) {
+
+    public WorkspaceEntry {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(country, "country");
+    }
+
+    static WorkspaceEntry of(University university, long addedMillis) {
+        return new WorkspaceEntry(university.name(), university.country(), addedMillis);
+    }
+
+    /** Returns whether this entry refers to {@code university}. */
+    public boolean matches(University university) {
+        return name.equals(university.name()) && country.equals(university.country());
+    }
+}
@@ -0,0 +1,67 @@
+package com.uniapp;
+
+import com.uniapp.model.GeoPoint;
+import com.uniapp.model.University;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Deterministic university records for tests: multi-word names from a small
+ * vocabulary, a few dozen countries, optional provinces and locations on a
+ * whole microdegree, so they survive the columnar store unchanged.
+ */
+public final class TestUniversities {
+
+    private static final String[] KINDS = {"University", "College", "Institute", "Academy", "School"};
+    private static final String[] QUALIFIERS = {"National", "Technical", "State", "Central", "Open", "Royal"};
+    private static final String[] SYLLABLES = {
+        "ath", "ber", "cal", "dor", "el", "fra", "gan", "hal", "is", "jor", "kap", "lin", "mar", "nor",
+        "os", "pat", "qui", "ros", "sal", "tes", "ur", "val", "wes", "xan", "yor", "zel"
+    };
+
+    private TestUniversities() {
+    }
+
+    /** Returns {@code size} universities generated from {@code seed}. */
+    public static List<University> generate(int size, long seed) {
+        Random random = new Random(seed);
+        List<University> universities = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            universities.add(next(random, i));
+        }
+        return universities;
+    }
+
+    /** Returns a random university whose domain is made unique by {@code serial}. */
+    public static University next(Random random, int serial) {
+        int country = random.nextInt(40);
+        String city = capitalize(word(random, 2 + random.nextInt(3)));
+        String kind = KINDS[random.nextInt(KINDS.length)];
+        String name = random.nextBoolean()
+                ? kind + " of " + city
+                : QUALIFIERS[random.nextInt(QUALIFIERS.length)] + " " + kind + " of " + city;
+        String code = "" + (char) ('A' + country / 26) + (char) ('A' + country % 26);
+        String domain = city.toLowerCase(Locale.ROOT) + serial + "." + code.toLowerCase(Locale.ROOT);
+        String province = random.nextInt(3) == 0 ? null : "Province " + random.nextInt(8);
+        GeoPoint location = random.nextInt(10) == 0 ? null
+                : new GeoPoint((random.nextInt(120_000_000) - 60_000_000) / 1e6,
+                        (random.nextInt(340_000_000) - 170_000_000) / 1e6);
+        return new University(name, "Country " + country, code, province, List.of(domain),
+                List.of("https://www." + domain + "/"), location);
+    }
+
+    private static String word(Random random, int syllables) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < syllables; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return word.toString();
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
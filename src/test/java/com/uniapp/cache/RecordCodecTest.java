@@ -0,0 +1,56 @@
+package com.uniapp.cache;
+
+import com.uniapp.model.GeoPoint;
+import com.uniapp.model.University;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RecordCodecTest {
+
+    private static final University PATRAS = new University("University of Patras", "Greece", "GR", null,
+            List.of("upatras.gr"), List.of("https://www.upatras.gr/"), new GeoPoint(38.2891, 21.7856));
+
+    @Test
+    void roundTripsEveryField() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RecordCodec.write(PATRAS, out);
+        ByteBuffer in = ByteBuffer.wrap(out.toByteArray());
+
+        assertEquals(PATRAS, RecordCodec.read(in));
+        assertEquals(0, in.remaining());
+    }
+
+    @Test
+    void rejectsListCountsLargerThanTheRecord() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RecordCodec.writeString(PATRAS.name(), out);
+        RecordCodec.writeString(PATRAS.country(), out);
+        RecordCodec.writeString(PATRAS.alphaTwoCode(), out);
+        RecordCodec.writeString(null, out);
+        int offset = out.size();
+        RecordCodec.writeVarint(Integer.MAX_VALUE, out);
+        RecordCodec.writeString("upatras.gr", out);
+
+        IOException e = assertThrows(IOException.class, () -> RecordCodec.read(ByteBuffer.wrap(out.toByteArray())));
+        assertEquals("Corrupt string count " + Integer.MAX_VALUE + " at offset " + offset, e.getMessage());
+    }
+
+    @Test
+    void rejectsTruncatedRecords() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RecordCodec.write(PATRAS, out);
+        byte[] bytes = out.toByteArray();
+        for (int length = 0; length < bytes.length; length++) {
+            ByteBuffer in = ByteBuffer.wrap(Arrays.copyOf(bytes, length));
+            assertThrows(IOException.class, () -> RecordCodec.read(in), "length " + length);
+        }
+    }
+}
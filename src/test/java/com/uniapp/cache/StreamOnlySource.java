@@ -0,0 +1,33 @@
+package com.uniapp.cache;
+
+import com.uniapp.model.University;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/** A source that can only be streamed, so a test fails if anything collects the dataset first. */
+public final class StreamOnlySource implements UniversitySource {
+
+    private final long version;
+    private final List<University> universities;
+
+    public StreamOnlySource(long version, List<University> universities) {
+        this.version = version;
+        this.universities = List.copyOf(universities);
+    }
+
+    @Override
+    public long version() {
+        return version;
+    }
+
+    @Override
+    public List<University> fetch() {
+        throw new UnsupportedOperationException("The dataset must be streamed");
+    }
+
+    @Override
+    public void stream(Consumer<University> sink) {
+        universities.forEach(sink);
+    }
+}
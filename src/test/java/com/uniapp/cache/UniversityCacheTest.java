@@ -0,0 +1,194 @@
+package com.uniapp.cache;
+
+import com.uniapp.TestUniversities;
+import com.uniapp.model.University;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UniversityCacheTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void firstRefreshWritesTheWholeDataset() throws IOException {
+        List<University> universities = TestUniversities.generate(500, 1);
+        UniversityCache cache = new UniversityCache(dir.resolve("universities.cache"));
+
+        RefreshResult result = cache.refresh(new InMemoryUniversitySource(7, universities));
+
+        assertTrue(result.rewritten());
+        assertEquals(500, result.inserted());
+        assertEquals(7, cache.version());
+        assertEquals(universities, cache.load());
+    }
+
+    @Test
+    void unchangedVersionSkipsTheSource() throws IOException {
+        UniversityCache cache = new UniversityCache(dir.resolve("universities.cache"));
+        InMemoryUniversitySource source = new InMemoryUniversitySource(1, TestUniversities.generate(50, 2));
+        cache.refresh(source);
+        long size = Files.size(cache.file());
+
+        RefreshResult result = cache.refresh(source, delta -> {
+            throw new AssertionError("unexpected delta " + delta);
+        });
+
+        assertFalse(result.changed());
+        assertEquals(size, Files.size(cache.file()));
+    }
+
+    @Test
+    void refreshAppendsOnlyTheChangesAndReplaysThem() throws IOException {
+        List<University> universities = new ArrayList<>(TestUniversities.generate(400, 3));
+        UniversityCache cache = new UniversityCache(dir.resolve("universities.cache"));
+        InMemoryUniversitySource source = new InMemoryUniversitySource(1, universities);
+        cache.refresh(source);
+
+        University removed = universities.remove(10);
+        University changed = universities.get(20);
+        universities.set(20, new University(changed.name(), changed.country(), changed.alphaTwoCode(),
+                "Changed Province", changed.domains(), changed.webPages(), changed.location()));
+        University added = TestUniversities.next(new Random(4), 1000);
+        universities.add(added);
+        source.publish(2, universities);
+        List<DatasetDelta> deltas = new ArrayList<>();
+
+        RefreshResult result = cache.refresh(source, deltas::add);
+
+        assertFalse(result.rewritten());
+        assertEquals(1, result.inserted());
+        assertEquals(1, result.updated());
+        assertEquals(1, result.deleted());
+        assertEquals(1, deltas.size());
+        assertEquals(List.of(added), deltas.get(0).inserted());
+        assertEquals(List.of(universities.get(20)), deltas.get(0).updated());
+        assertEquals(List.of(removed), deltas.get(0).deleted());
+        assertEquals(2, cache.version());
+        assertEquals(sorted(universities), sorted(new UniversityCache(cache.file()).load()));
+    }
+
+    @Test
+    void refreshStreamsTheSourceWithoutFetchingIt() throws IOException {
+        List<University> universities = new ArrayList<>(TestUniversities.generate(300, 9));
+        UniversityCache cache = new UniversityCache(dir.resolve("universities.cache"));
+        cache.refresh(new StreamOnlySource(1, universities));
+        universities.remove(0);
+        universities.add(TestUniversities.next(new Random(10), 1000));
+        List<University> withDuplicate = new ArrayList<>(universities);
+        withDuplicate.add(universities.get(0));
+
+        RefreshResult result = cache.refresh(new StreamOnlySource(2, withDuplicate));
+
+        assertEquals(1, result.inserted());
+        assertEquals(1, result.deleted());
+        assertEquals(1, result.duplicates());
+        assertEquals(sorted(universities), sorted(cache.load()));
+    }
+
+    @Test
+    void compactsOnceStaleEntriesOutnumberLiveOnes() throws IOException {
+        List<University> universities = new ArrayList<>(TestUniversities.generate(100, 5));
+        UniversityCache cache = new UniversityCache(dir.resolve("universities.cache"));
+        InMemoryUniversitySource source = new InMemoryUniversitySource(0, universities);
+        cache.refresh(source);
+        Random random = new Random(6);
+        boolean rewritten = false;
+        for (int version = 1; version <= 20 && !rewritten; version++) {
+            for (int i = 0; i < 30; i++) {
+                universities.set(random.nextInt(universities.size()), TestUniversities.next(random, version * 100 + i));
+            }
+            source.publish(version, universities);
+            rewritten = cache.refresh(source).rewritten();
+            assertEquals(sorted(universities), sorted(cache.load()), "version " + version);
+        }
+        assertTrue(rewritten);
+    }
+
+    @Test
+    void keepsTheFirstOfSeveralRecordsWithTheSameKey() throws IOException {
+        University first = new University("University of Patras", "Greece", "GR", null, List.of("upatras.gr"),
+                List.of());
+        University second = new University("University of Patras", "Greece", "GR", "Achaea", List.of(),
+                List.of());
+        University other = new University("University of Crete", "Greece", "GR", null, List.of(), List.of());
+        UniversityCache cache = new UniversityCache(dir.resolve("universities.cache"));
+
+        RefreshResult result = cache.refresh(new InMemoryUniversitySource(1, List.of(first, second, other)));
+
+        assertEquals(1, result.duplicates());
+        assertEquals(List.of(first, other), cache.load());
+        try (UniversityCache.Writer writer = cache.writer(2)) {
+            assertTrue(writer.add(other));
+            assertFalse(writer.add(other));
+            assertEquals(1, writer.count());
+            assertEquals(1, writer.duplicates());
+            writer.commit();
+        }
+        assertEquals(List.of(other), cache.load());
+    }
+
+    @Test
+    void uncommittedWriterLeavesTheCacheAlone() throws IOException {
+        List<University> universities = TestUniversities.generate(20, 7);
+        UniversityCache cache = new UniversityCache(dir.resolve("universities.cache"));
+        cache.refresh(new InMemoryUniversitySource(1, universities));
+
+        try (UniversityCache.Writer writer = cache.writer(2)) {
+            writer.add(universities.get(0));
+        }
+
+        assertEquals(1, cache.version());
+        assertEquals(universities, cache.load());
+        try (var files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void refreshRewritesADamagedLog() throws IOException {
+        List<University> universities = TestUniversities.generate(50, 8);
+        UniversityCache cache = new UniversityCache(dir.resolve("universities.cache"));
+        InMemoryUniversitySource source = new InMemoryUniversitySource(1, universities);
+        cache.refresh(source);
+        corruptFirstEntry(cache.file());
+        assertThrows(IOException.class, cache::load);
+
+        source.publish(2, universities);
+        RefreshResult result = cache.refresh(source);
+
+        assertTrue(result.rewritten());
+        assertEquals(universities, cache.load());
+    }
+
+    @Test
+    void rejectsFilesThatAreNotCaches() throws IOException {
+        Path file = Files.writeString(dir.resolve("universities.cache"), "[{\"name\": \"not a cache\"}]");
+        IOException e = assertThrows(IOException.class, () -> new UniversityCache(file).load());
+        assertNotNull(e.getMessage());
+    }
+
+    /** Overwrites the operation byte of the first log entry with an unknown one. */
+    static void corruptFirstEntry(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[UniversityCache.HEADER_SIZE] = 7;
+        Files.write(file, bytes);
+    }
+
+    private static List<String> sorted(List<University> universities) {
+        return universities.stream().map(University::toString).sorted().toList();
+    }
+}
@@ -0,0 +1,97 @@
+package com.uniapp.headless;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvTest {
+
+    @Test
+    void writeQuotesOnlyWhenNeeded() {
+        assertEquals("plain", write("plain"));
+        assertEquals("\"Paris, France\"", write("Paris, France"));
+        assertEquals("\"The \"\"New\"\" School\"", write("The \"New\" School"));
+        assertEquals("\"two\nlines\"", write("two\nlines"));
+        assertEquals("\"carriage\rreturn\"", write("carriage\rreturn"));
+        assertEquals("", write(""));
+        assertEquals("", write(null));
+    }
+
+    @Test
+    void readSplitsRecordsAndUnquotesFields() throws IOException {
+        List<String[]> records = readAll("name,country\r\n"
+                + "\"University of California, Berkeley\",United States\n"
+                + "\"The \"\"New\"\" School\",\"United\nStates\"\n"
+                + ",\n"
+                + "last,record");
+
+        assertEquals(5, records.size());
+        assertArrayEquals(new String[] {"name", "country"}, records.get(0));
+        assertArrayEquals(new String[] {"University of California, Berkeley", "United States"}, records.get(1));
+        assertArrayEquals(new String[] {"The \"New\" School", "United\nStates"}, records.get(2));
+        assertArrayEquals(new String[] {"", ""}, records.get(3));
+        assertArrayEquals(new String[] {"last", "record"}, records.get(4));
+    }
+
+    @Test
+    void readsBackWhatWasWritten() throws IOException {
+        String[] fields = {"a,b", "\"quoted\"", "multi\r\nline", "", "plain", "\"", ",,"};
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            Csv.write(fields[i], out);
+        }
+        out.append('\n');
+
+        List<String[]> records = readAll(out.toString());
+
+        assertEquals(1, records.size());
+        assertArrayEquals(fields, records.get(0));
+    }
+
+    @Test
+    void readsFieldsLongerThanTheBuffer() throws IOException {
+        String name = "x".repeat(200_000);
+        List<String[]> records = readAll("\"" + name + "\",y\n");
+        assertArrayEquals(new String[] {name, "y"}, records.get(0));
+    }
+
+    @Test
+    void rejectsUnterminatedQuotedField() {
+        IOException e = assertThrows(IOException.class, () -> readAll("a\n\"open,field\nstill open"));
+        assertTrue(e.getMessage().contains("line 3"), e.getMessage());
+    }
+
+    @Test
+    void returnsNullAtTheEnd() throws IOException {
+        Csv csv = new Csv(new StringReader("only\n"));
+        assertArrayEquals(new String[] {"only"}, csv.read());
+        assertNull(csv.read());
+    }
+
+    private static String write(String value) {
+        StringBuilder out = new StringBuilder();
+        Csv.write(value, out);
+        return out.toString();
+    }
+
+    private static List<String[]> readAll(String text) throws IOException {
+        Csv csv = new Csv(new StringReader(text));
+        List<String[]> records = new ArrayList<>();
+        for (String[] record = csv.read(); record != null; record = csv.read()) {
+            records.add(record);
+        }
+        return records;
+    }
+}
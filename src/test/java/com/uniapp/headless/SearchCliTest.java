@@ -0,0 +1,78 @@
+package com.uniapp.headless;
+
+import com.uniapp.TestUniversities;
+import com.uniapp.ingest.UniversityJsonParser;
+import com.uniapp.model.University;
+import com.uniapp.search.Facet;
+import com.uniapp.search.FacetSelection;
+import com.uniapp.search.SearchEngine;
+import com.uniapp.search.SearchResult;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchCliTest {
+
+    private final HeadlessSearch search = new HeadlessSearch(new SearchEngine(TestUniversities.generate(2_000, 12)));
+
+    @Test
+    void writesOneJsonLinePerQueryInInputOrder() throws IOException {
+        List<String> queries = List.of("university", "national inst", "univrsity", "qqqqqq", "", "of");
+        StringWriter out = new StringWriter();
+
+        int answered = SearchCli.run(search, FacetSelection.NONE, 5, new StringReader(String.join("\n", queries)),
+                out);
+
+        String[] lines = out.toString().split("\n", -1);
+        assertEquals(queries.size(), answered);
+        assertEquals(queries.size() + 1, lines.length);
+        assertEquals("", lines[queries.size()]);
+        for (int i = 0; i < queries.size(); i++) {
+            assertLine(search.search(queries.get(i)), 5, lines[i]);
+        }
+    }
+
+    @Test
+    void fallsBackToFuzzyMatchesAndEscapesTheQuery() throws IOException {
+        StringWriter out = new StringWriter();
+        SearchCli.run(search, FacetSelection.NONE, 3, new StringReader("univrsity \"of\"\\\n"), out);
+
+        String line = out.toString().trim();
+        assertTrue(line.startsWith("{\"query\":\"univrsity \\\"of\\\"\\\\\",\"total\":"), line);
+        assertTrue(line.contains(",\"fuzzy\":true,"), line);
+    }
+
+    @Test
+    void restrictsResultsToTheSelectedCountries() throws IOException {
+        FacetSelection selection = FacetSelection.NONE.with(Facet.COUNTRY, Set.of("Country 3"));
+        StringWriter out = new StringWriter();
+        SearchCli.run(search, selection, 1_000, new StringReader("university\n"), out);
+
+        List<University> results = results(out.toString().trim());
+        assertFalse(results.isEmpty());
+        assertEquals(search.search("university", selection).size(), results.size());
+        assertTrue(results.stream().allMatch(u -> u.country().equals("Country 3")));
+    }
+
+    /** Checks that {@code line} holds the query, the total and the first {@code limit} universities of {@code result}. */
+    private static void assertLine(SearchResult result, int limit, String line) throws IOException {
+        StringBuilder prefix = new StringBuilder("{\"query\":\"").append(result.query()).append("\",\"total\":")
+                .append(result.size()).append(",\"fuzzy\":").append(result.fuzzy()).append(",\"results\":[");
+        assertTrue(line.startsWith(prefix.toString()), line);
+        List<University> universities = result.universities();
+        assertEquals(universities.subList(0, Math.min(limit, universities.size())), results(line));
+    }
+
+    private static List<University> results(String line) throws IOException {
+        int start = line.indexOf("\"results\":") + "\"results\":".length();
+        return UniversityJsonParser.parse(line.substring(start, line.length() - 1));
+    }
+}
@@ -0,0 +1,162 @@
+package com.uniapp.ingest;
+
+import com.uniapp.TestUniversities;
+import com.uniapp.cache.InMemoryUniversitySource;
+import com.uniapp.cache.UniversityCache;
+import com.uniapp.model.GeoPoint;
+import com.uniapp.model.University;
+import com.uniapp.search.FacetSelection;
+import com.uniapp.search.GeoMatch;
+import com.uniapp.search.SearchEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexUpdaterTest {
+
+    private static final int RANK_LIMIT = 20;
+    private static final List<String> QUERIES = List.of("university", "col", "national inst", "of", "ath", "zel",
+            "country 3", "province", "xyz");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void patchedEngineMatchesARebuiltOne() throws IOException {
+        List<University> universities = new ArrayList<>(TestUniversities.generate(2_000, 1));
+        UniversityCache cache = new UniversityCache(dir.resolve("universities.cache"));
+        InMemoryUniversitySource source = new InMemoryUniversitySource(1, universities);
+        cache.refresh(source);
+        AtomicReference<SearchEngine> published = new AtomicReference<>();
+        IndexUpdater updater = new IndexUpdater(cache, new SearchEngine(cache.load()), published::set);
+        Random random = new Random(2);
+
+        for (int version = 2; version <= 6; version++) {
+            for (int i = 0; i < 20; i++) {
+                universities.remove(random.nextInt(universities.size()));
+            }
+            for (int i = 0; i < 20; i++) {
+                int at = random.nextInt(universities.size());
+                University old = universities.get(at);
+                universities.set(at, new University(old.name(), old.country(), old.alphaTwoCode(),
+                        "Changed " + version, old.domains(), old.webPages(), null));
+            }
+            for (int i = 0; i < 10 + 10 * (version % 3); i++) {
+                universities.add(TestUniversities.next(random, version * 1000 + i));
+            }
+            source.publish(version, universities);
+
+            UpdateReport report = updater.update(source);
+
+            assertTrue(report.refresh().changed());
+            assertFalse(report.rebuilt(), "version " + version);
+            assertSame(updater.engine(), published.get());
+            SearchEngine rebuilt = new SearchEngine(cache.load());
+            assertEquals(rebuilt.universities().size(), report.documents());
+            assertEquivalent(rebuilt, updater.engine());
+        }
+    }
+
+    @Test
+    void rebuildsWhenTheDeltaTouchesMostDocuments() throws IOException {
+        UniversityCache cache = new UniversityCache(dir.resolve("universities.cache"));
+        InMemoryUniversitySource source = new InMemoryUniversitySource(1, TestUniversities.generate(200, 3));
+        cache.refresh(source);
+        IndexUpdater updater = new IndexUpdater(cache, new SearchEngine(cache.load()), engine -> {
+        });
+
+        source.publish(2, TestUniversities.generate(200, 4));
+        UpdateReport report = updater.update(source);
+
+        assertTrue(report.rebuilt());
+        assertEquivalent(new SearchEngine(cache.load()), updater.engine());
+    }
+
+    @Test
+    void unchangedSourceKeepsTheEngine() throws IOException {
+        UniversityCache cache = new UniversityCache(dir.resolve("universities.cache"));
+        InMemoryUniversitySource source = new InMemoryUniversitySource(1, TestUniversities.generate(100, 5));
+        cache.refresh(source);
+        SearchEngine engine = new SearchEngine(cache.load());
+        IndexUpdater updater = new IndexUpdater(cache, engine, published -> {
+            throw new AssertionError("nothing changed");
+        });
+
+        UpdateReport report = updater.update(source);
+
+        assertFalse(report.refresh().changed());
+        assertSame(engine, updater.engine());
+        assertSame(report, updater.lastUpdate());
+    }
+
+    /** Asserts that both engines hold the same records and answer queries alike, whatever their document ids. */
+    private static void assertEquivalent(SearchEngine expected, SearchEngine actual) {
+        assertEquals(sorted(expected.universities()), sorted(actual.universities()));
+        for (String query : QUERIES) {
+            assertEquals(sorted(expected.search(query)), sorted(actual.search(query)), query);
+            assertEquals(sorted(expected.fuzzySearch(query + "x", Integer.MAX_VALUE)),
+                    sorted(actual.fuzzySearch(query + "x", Integer.MAX_VALUE)), query);
+            int[] expectedHits = expected.hits(query, FacetSelection.NONE);
+            int[] actualHits = actual.hits(query, FacetSelection.NONE);
+            assertEquals(expected.facets().counts(expectedHits), actual.facets().counts(actualHits), query);
+            assertSameRanking(query, expected, expected.rank(query, expectedHits, RANK_LIMIT),
+                    actual, actual.rank(query, actualHits, RANK_LIMIT));
+        }
+        GeoPoint origin = new GeoPoint(10, 20);
+        List<GeoMatch> expectedNearest = expected.nearest("", FacetSelection.NONE, origin, 25);
+        List<GeoMatch> actualNearest = actual.nearest("", FacetSelection.NONE, origin, 25);
+        assertEquals(expectedNearest.size(), actualNearest.size());
+        for (int i = 0; i < expectedNearest.size(); i++) {
+            assertEquals(expectedNearest.get(i).distanceKm(), actualNearest.get(i).distanceKm(), 1e-9);
+        }
+    }
+
+    /**
+     * Asserts that the top {@link #RANK_LIMIT} of both rankings have the same
+     * scores and, above the lowest of them, the same records. Ties are broken
+     * by document id, which differs between the engines.
+     */
+    private static void assertSameRanking(String query, SearchEngine expected, int[] expectedRanked,
+                                          SearchEngine actual, int[] actualRanked) {
+        int k = Math.min(RANK_LIMIT, expectedRanked.length);
+        assertEquals(expectedRanked.length, actualRanked.length, query);
+        if (k == 0) {
+            return;
+        }
+        float[] expectedScores = new float[k];
+        float[] actualScores = new float[k];
+        for (int i = 0; i < k; i++) {
+            expectedScores[i] = expected.ranker().score(query, expectedRanked[i]);
+            actualScores[i] = actual.ranker().score(query, actualRanked[i]);
+        }
+        assertArrayEquals(expectedScores, actualScores, 1e-4f, query);
+        float cutoff = expectedScores[k - 1] + 1e-4f;
+        List<University> expectedTop = new ArrayList<>();
+        List<University> actualTop = new ArrayList<>();
+        for (int i = 0; i < k; i++) {
+            if (expectedScores[i] > cutoff) {
+                expectedTop.add(expected.universities().get(expectedRanked[i]));
+            }
+            if (actualScores[i] > cutoff) {
+                actualTop.add(actual.universities().get(actualRanked[i]));
+            }
+        }
+        assertEquals(sorted(expectedTop), sorted(actualTop), query);
+    }
+
+    private static List<String> sorted(List<University> universities) {
+        return universities.stream().map(University::toString).sorted().toList();
+    }
+}
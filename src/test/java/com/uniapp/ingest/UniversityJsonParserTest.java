@@ -0,0 +1,72 @@
+package com.uniapp.ingest;
+
+import com.uniapp.model.GeoPoint;
+import com.uniapp.model.University;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UniversityJsonParserTest {
+
+    private static final String ATHENS = "{\"name\": \"National and Kapodistrian University of Athens\","
+            + " \"country\": \"Greece\", \"alpha_two_code\": \"GR\", \"state-province\": null,"
+            + " \"domains\": [\"uoa.gr\"], \"web_pages\": [\"https://www.uoa.gr/\"]}";
+    private static final String PATRAS = "{\"web_pages\": [\"https://www.upatras.gr/\"], \"name\": \"University"
+            + " of Patras\", \"alpha_two_code\": \"GR\", \"country\": \"Greece\", \"domains\": [\"upatras.gr\"],"
+            + " \"state-province\": \"Achaea\", \"founded\": {\"year\": 1964, \"tags\": [1, true]},"
+            + " \"latitude\": 38.2891, \"longitude\": 21.7856}";
+
+    @Test
+    void parsesEveryFieldAndSkipsUnknownOnes() throws IOException {
+        List<University> universities = UniversityJsonParser.parse("[" + ATHENS + ",\n" + PATRAS + "]");
+
+        assertEquals(List.of(
+                new University("National and Kapodistrian University of Athens", "Greece", "GR", null,
+                        List.of("uoa.gr"), List.of("https://www.uoa.gr/")),
+                new University("University of Patras", "Greece", "GR", "Achaea", List.of("upatras.gr"),
+                        List.of("https://www.upatras.gr/"), new GeoPoint(38.2891, 21.7856))), universities);
+        assertEquals(List.of(), UniversityJsonParser.parse(" [ ] "));
+    }
+
+    @Test
+    void pushesEachRecordBeforeTheInputEnds() {
+        // The reader fails once the first record has been served, as a stalled download would.
+        Reader stalled = new Reader() {
+            private final Reader first = new StringReader("[" + ATHENS + ",");
+
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                int read = first.read(buffer, offset, length);
+                if (read < 0) {
+                    throw new IOException("stalled");
+                }
+                return read;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        List<University> received = new ArrayList<>();
+
+        IOException e = assertThrows(IOException.class, () -> UniversityJsonParser.parse(stalled, received::add));
+
+        assertEquals("stalled", e.getMessage());
+        assertEquals(1, received.size());
+        assertEquals("Greece", received.get(0).country());
+    }
+
+    @Test
+    void rejectsMalformedDocuments() {
+        assertThrows(IOException.class, () -> UniversityJsonParser.parse("[" + ATHENS));
+        assertThrows(IOException.class, () -> UniversityJsonParser.parse("{\"name\": \"x\"}"));
+        assertThrows(IOException.class, () -> UniversityJsonParser.parse("[{\"country\": \"Greece\"}]"));
+    }
+}
@@ -0,0 +1,116 @@
+package com.uniapp.ingest;
+
+import com.uniapp.TestUniversities;
+import com.uniapp.cache.InMemoryUniversitySource;
+import com.uniapp.cache.StreamOnlySource;
+import com.uniapp.cache.UniversityCache;
+import com.uniapp.cache.UniversitySource;
+import com.uniapp.model.University;
+import com.uniapp.search.IndexSnapshot;
+import com.uniapp.search.SearchEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UniversityLoaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void publishesPartialEnginesWhileStreaming() throws IOException {
+        List<University> universities = TestUniversities.generate(1_000, 2);
+        UniversitySource source = new StreamOnlySource(4, universities);
+        UniversityCache cache = new UniversityCache(dir.resolve("universities.cache"));
+        UniversityLoader loader = new UniversityLoader(cache);
+        List<Integer> partialSizes = new ArrayList<>();
+
+        SearchEngine engine = loader.load(source, partial -> partialSizes.add(partial.universities().size()));
+
+        assertEquals(List.of(256, 512), partialSizes);
+        assertEquals(LoadReport.Origin.SOURCE, loader.lastLoad().origin());
+        assertEquals(universities, engine.universities());
+        assertEquals(universities, cache.load());
+
+        SearchEngine cached = new UniversityLoader(cache).load(source, partial -> {
+        });
+        assertEquals(universities, cached.universities());
+    }
+
+    @Test
+    void damagedCacheIsRewrittenFromTheSource() throws IOException {
+        List<University> universities = TestUniversities.generate(100, 1);
+        InMemoryUniversitySource source = new InMemoryUniversitySource(3, universities);
+        UniversityCache cache = new UniversityCache(dir.resolve("universities.cache"));
+        cache.refresh(source);
+        byte[] bytes = Files.readAllBytes(cache.file());
+        // Unknown operation in the first entry, right after the 32-byte header.
+        bytes[32] = 7;
+        Files.write(cache.file(), bytes);
+        UniversityLoader loader = new UniversityLoader(cache);
+
+        SearchEngine engine = loader.load(source, partial -> {
+        });
+
+        assertEquals(LoadReport.Origin.SOURCE, loader.lastLoad().origin());
+        assertEquals(universities, engine.universities());
+        assertEquals(universities, cache.load());
+    }
+
+    @Test
+    void nextLaunchRestoresTheSavedSnapshot() throws IOException {
+        List<University> universities = TestUniversities.generate(500, 3);
+        InMemoryUniversitySource source = new InMemoryUniversitySource(5, universities);
+        UniversityCache cache = new UniversityCache(dir.resolve("universities.cache"));
+        IndexSnapshot snapshot = new IndexSnapshot(dir.resolve("index.snapshot"));
+        UniversityLoader first = new UniversityLoader(cache, snapshot);
+        first.save(first.load(source, partial -> {
+        }));
+        // The cache keeps the first record per key, so compare against what it holds.
+        List<University> loaded = cache.load();
+
+        UniversityLoader second = new UniversityLoader(cache, snapshot);
+        SearchEngine engine = second.load(new StreamOnlySource(5, List.of()), partial -> {
+        });
+
+        assertEquals(LoadReport.Origin.SNAPSHOT, second.lastLoad().origin());
+        assertEquals(loaded, engine.universities());
+        assertEquals(first.lastLoad().documents(), second.lastLoad().documents());
+    }
+
+    @Test
+    void corruptedSnapshotFallsBackToARebuild() throws IOException {
+        List<University> universities = TestUniversities.generate(500, 3);
+        InMemoryUniversitySource source = new InMemoryUniversitySource(5, universities);
+        UniversityCache cache = new UniversityCache(dir.resolve("universities.cache"));
+        IndexSnapshot snapshot = new IndexSnapshot(dir.resolve("index.snapshot"));
+        UniversityLoader first = new UniversityLoader(cache, snapshot);
+        first.save(first.load(source, partial -> {
+        }));
+        List<University> loaded = cache.load();
+        // Flip a bit in the body so that only the CRC check can notice.
+        byte[] bytes = Files.readAllBytes(snapshot.file());
+        bytes[bytes.length / 2] ^= 0x10;
+        Files.write(snapshot.file(), bytes);
+
+        UniversityLoader second = new UniversityLoader(cache, snapshot);
+        SearchEngine engine = second.load(source, partial -> {
+        });
+
+        assertEquals(LoadReport.Origin.CACHE, second.lastLoad().origin());
+        assertEquals(loaded, engine.universities());
+        assertFalse(Files.exists(snapshot.file()));
+        second.save(engine);
+        assertTrue(Files.exists(snapshot.file()));
+        assertEquals(loaded, snapshot.restore(5).universities());
+    }
+}
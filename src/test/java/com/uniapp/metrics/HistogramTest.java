@@ -0,0 +1,63 @@
+package com.uniapp.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistogramTest {
+
+    @Test
+    void percentilesAreWithinTheBucketResolution() {
+        Histogram histogram = new Histogram();
+        Random random = new Random(8);
+        long[] values = new long[100_000];
+        long sum = 0;
+        for (int i = 0; i < values.length; i++) {
+            // Log-uniform from 1 ns to about 1 s, like search latencies.
+            values[i] = (long) Math.exp(random.nextDouble() * Math.log(1e9));
+            sum += values[i];
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        Histogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(values.length, snapshot.count());
+        assertEquals(values[values.length - 1], snapshot.max());
+        assertEquals((double) sum / values.length, snapshot.mean(), 1e-6);
+        for (double quantile : new double[] {0.1, 0.5, 0.9, 0.99, 0.999, 1.0}) {
+            long exact = values[(int) Math.ceil(quantile * values.length) - 1];
+            long reported = snapshot.percentile(quantile);
+            assertTrue(reported >= exact && reported <= exact + exact / 16 + 1,
+                    quantile + ": " + reported + " vs " + exact);
+        }
+    }
+
+    @Test
+    void smallValuesAreExactAndNegativeOnesCountAsZero() {
+        Histogram histogram = new Histogram();
+        for (long value = -3; value < 16; value++) {
+            histogram.record(value);
+        }
+        Histogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(19, snapshot.count());
+        assertEquals(0, snapshot.percentile(0.2));
+        assertEquals(15, snapshot.percentile(1.0));
+    }
+
+    @Test
+    void resetClearsEveryValue() {
+        Histogram histogram = new Histogram();
+        histogram.record(1_000);
+        histogram.reset();
+        Histogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(0, snapshot.count());
+        assertEquals(0, snapshot.max());
+        assertEquals(0, snapshot.percentile(0.5));
+    }
+}
@@ -0,0 +1,80 @@
+package com.uniapp.model;
+
+import com.uniapp.TestUniversities;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class UniversityStoreTest {
+
+    private final List<University> universities = TestUniversities.generate(1_000, 1);
+
+    @Test
+    void recordsAndRowsReadBackEveryField() {
+        UniversityStore store = UniversityStore.of(universities);
+        UniversityStore.Row row = store.row();
+
+        assertEquals(universities, store.asList());
+        for (int docId = 0; docId < store.size(); docId++) {
+            University university = universities.get(docId);
+            assertSame(row, row.at(docId));
+            assertEquals(university.name(), row.name());
+            assertEquals(university.country(), row.country());
+            assertEquals(university.alphaTwoCode(), row.alphaTwoCode());
+            assertEquals(university.stateProvince(), row.stateProvince());
+            assertEquals(university.domains().size(), row.domainCount());
+            assertEquals(university.domains().get(0), row.domain(0));
+            assertEquals(university.webPages().get(0), row.webPage(0));
+            assertEquals(university.location(), row.location());
+        }
+    }
+
+    @Test
+    void documentsViewFollowsTheGivenIds() {
+        UniversityStore store = UniversityStore.of(universities);
+        assertEquals(List.of(universities.get(7), universities.get(3), universities.get(999)),
+                store.documents(new int[] {7, 3, 999}));
+    }
+
+    @Test
+    void roundTripsThroughItsSerializedForm() throws IOException {
+        UniversityStore store = UniversityStore.of(universities);
+        assertEquals(universities, readBack(store).asList());
+    }
+
+    @Test
+    void patchReplacesAppendsAndTruncatesDocuments() throws IOException {
+        UniversityStore store = UniversityStore.of(universities);
+        Random random = new Random(2);
+        Map<Integer, University> records = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            records.put(random.nextInt(900), TestUniversities.next(random, 10_000 + i));
+        }
+        records.put(900, TestUniversities.next(random, 20_000));
+
+        UniversityStore patched = store.patch(records, 901);
+
+        assertEquals(901, patched.size());
+        for (int docId = 0; docId < 901; docId++) {
+            assertEquals(records.getOrDefault(docId, universities.get(docId)), patched.get(docId), "doc " + docId);
+        }
+        assertEquals(universities, store.asList());
+        assertEquals(patched.asList(), readBack(patched).asList());
+    }
+
+    private static UniversityStore readBack(UniversityStore store) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        store.writeTo(new DataOutputStream(bytes));
+        return UniversityStore.readFrom(ByteBuffer.wrap(bytes.toByteArray()));
+    }
+}
@@ -0,0 +1,74 @@
+package com.uniapp.search;
+
+import com.uniapp.TestUniversities;
+import com.uniapp.model.University;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FacetIndexTest {
+
+    private static final List<String> QUERIES = List.of("", "university", "national col", "of", "inst");
+
+    private final List<University> universities = TestUniversities.generate(3_000, 11);
+    private final SearchEngine engine = new SearchEngine(universities);
+
+    @Test
+    void filteredSearchMatchesABruteForceFilter() {
+        Random random = new Random(5);
+        for (int round = 0; round < 50; round++) {
+            FacetSelection selection = FacetSelection.NONE
+                    .with(Facet.COUNTRY, Set.of("Country " + random.nextInt(40), "Country " + random.nextInt(40)));
+            if (random.nextBoolean()) {
+                selection = selection.with(Facet.STATE_PROVINCE, Set.of("Province " + random.nextInt(8)));
+            }
+            for (String query : QUERIES) {
+                List<University> candidates = query.isEmpty() ? universities : engine.search(query);
+                FacetSelection selected = selection;
+                List<University> expected = candidates.stream().filter(u -> matches(u, selected)).toList();
+                assertEquals(expected, engine.search(query, selection), query + " " + selection);
+            }
+        }
+    }
+
+    @Test
+    void emptySelectionDoesNotConstrainTheQuery() {
+        assertEquals(engine.search("university"), engine.search("university", FacetSelection.NONE));
+        assertEquals(List.of(), engine.search("", FacetSelection.NONE));
+    }
+
+    @Test
+    void countsMatchABruteForceTally() {
+        for (String query : QUERIES) {
+            int[] hits = query.isEmpty()
+                    ? engine.hits("", FacetSelection.NONE.with(Facet.COUNTRY, engine.facets().values(Facet.COUNTRY)))
+                    : engine.hits(query, FacetSelection.NONE);
+            for (Facet facet : Facet.values()) {
+                Map<String, Integer> expected = new HashMap<>();
+                for (int docId : hits) {
+                    String value = facet.valueOf(universities.get(docId));
+                    if (value != null) {
+                        expected.merge(value, 1, Integer::sum);
+                    }
+                }
+                assertEquals(expected, new HashMap<>(engine.facets().counts(facet, hits)), query + " " + facet);
+            }
+        }
+    }
+
+    private static boolean matches(University university, FacetSelection selection) {
+        for (Map.Entry<Facet, Set<String>> entry : selection.values().entrySet()) {
+            String value = entry.getKey().valueOf(university);
+            if (value == null || !entry.getValue().contains(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
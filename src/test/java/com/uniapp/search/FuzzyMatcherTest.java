@@ -0,0 +1,98 @@
+package com.uniapp.search;
+
+import com.uniapp.TestUniversities;
+import com.uniapp.model.University;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FuzzyMatcherTest {
+
+    @Test
+    void nearFindsEveryTermWithinTheEditLimit() {
+        List<University> universities = new ArrayList<>(TestUniversities.generate(3_000, 2));
+        universities.add(new University("Banana Institute", "Country 0", "AA", null, List.of(), List.of()));
+        InvertedIndex index = InvertedIndex.build(universities);
+        FuzzyMatcher matcher = FuzzyMatcher.build(index);
+
+        // Repeated trigrams must not raise the number of shared trigrams required.
+        List<String> queries = new ArrayList<>(List.of("anana", "bananna", "banaan", "nanan"));
+        queries.addAll(typos(index, 300, 3));
+
+        for (String query : queries) {
+            assertEquals(bruteForce(index, query), docs(matcher.near(query)), query);
+        }
+    }
+
+    @Test
+    void parallelBuildFindsTheSameTermsAsABruteForceScan() {
+        InvertedIndex index = InvertedIndex.build(TestUniversities.generate(20_000, 5));
+        // Enough terms for the trigram dictionary to be built in several shards and merged.
+        assertTrue(index.termCount() > 16_384, "term count " + index.termCount());
+        FuzzyMatcher matcher = FuzzyMatcher.build(index);
+
+        for (String query : typos(index, 200, 6)) {
+            assertEquals(bruteForce(index, query), docs(matcher.near(query)), query);
+        }
+    }
+
+    @Test
+    void matchFindsMisspelledTerms() {
+        InvertedIndex index = InvertedIndex.build(List.of(
+                new University("University of Patras", "Greece", "GR", null, List.of(), List.of()),
+                new University("University of Athens", "Greece", "GR", null, List.of(), List.of())));
+        List<FuzzyMatch> matches = FuzzyMatcher.build(index).match("athns", 10);
+
+        assertEquals(1, matches.size());
+        assertEquals(1, matches.get(0).docId());
+    }
+
+    /** Returns {@code count} index terms of at least three letters, each with one random edit. */
+    private static List<String> typos(InvertedIndex index, int count, long seed) {
+        List<String> typos = new ArrayList<>(count);
+        Random random = new Random(seed);
+        while (typos.size() < count) {
+            String term = index.term(random.nextInt(index.termCount()));
+            if (term.length() < 3) {
+                continue;
+            }
+            StringBuilder typo = new StringBuilder(term);
+            int at = random.nextInt(typo.length());
+            switch (random.nextInt(3)) {
+                case 0 -> typo.deleteCharAt(at);
+                case 1 -> typo.setCharAt(at, (char) ('a' + random.nextInt(26)));
+                default -> typo.insert(at, (char) ('a' + random.nextInt(26)));
+            }
+            typos.add(typo.toString());
+        }
+        return typos;
+    }
+
+    private static TreeSet<Integer> bruteForce(InvertedIndex index, String query) {
+        int max = FuzzyMatcher.maxEdits(query.length());
+        TreeSet<Integer> docs = new TreeSet<>();
+        for (int termId = 0; termId < index.termCount(); termId++) {
+            String term = index.term(termId);
+            if (term.startsWith(query) || FuzzyMatcher.distance(query, term, max) <= max) {
+                for (int docId : index.postings(termId)) {
+                    docs.add(docId);
+                }
+            }
+        }
+        return docs;
+    }
+
+    private static TreeSet<Integer> docs(int[] docIds) {
+        TreeSet<Integer> docs = new TreeSet<>();
+        for (int docId : docIds) {
+            docs.add(docId);
+        }
+        return docs;
+    }
+}
@@ -0,0 +1,115 @@
+package com.uniapp.search;
+
+import com.uniapp.TestUniversities;
+import com.uniapp.model.GeoPoint;
+import com.uniapp.model.University;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GeoIndexTest {
+
+    private static final double TOLERANCE_KM = 1e-6;
+
+    private final Random random = new Random(13);
+
+    @Test
+    void nearestAndWithinMatchABruteForceScan() {
+        List<University> universities = TestUniversities.generate(5_000, 14);
+        SearchEngine engine = new SearchEngine(universities);
+
+        assertMatchesBruteForce(engine, universities);
+    }
+
+    @Test
+    void patchedIndexMatchesABruteForceScan() {
+        List<University> universities = new ArrayList<>(TestUniversities.generate(5_000, 15));
+        SearchEngine engine = new SearchEngine(universities);
+        for (int round = 0; round < 4; round++) {
+            // Move, remove and add locations, drop the last documents and append new ones.
+            int size = universities.size() - 50 + random.nextInt(200);
+            while (universities.size() > size) {
+                universities.remove(universities.size() - 1);
+            }
+            Map<Integer, University> records = new HashMap<>();
+            for (int i = 0; i < 300; i++) {
+                int docId = random.nextInt(universities.size());
+                University university = TestUniversities.next(random, 100_000 * (round + 1) + i);
+                records.put(docId, university);
+                universities.set(docId, university);
+            }
+            for (int docId = universities.size(); docId < size; docId++) {
+                University university = TestUniversities.next(random, 200_000 * (round + 1) + docId);
+                records.put(docId, university);
+                universities.add(university);
+            }
+            engine = engine.patch(records, size);
+
+            assertEquals(universities, engine.universities());
+            assertMatchesBruteForce(engine, universities);
+        }
+    }
+
+    private void assertMatchesBruteForce(SearchEngine engine, List<University> universities) {
+        for (int i = 0; i < 30; i++) {
+            GeoPoint origin = new GeoPoint(random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180);
+            String query = i % 3 == 0 ? "university" : i % 3 == 1 ? "nat" : "";
+            int[] filter = query.isEmpty() ? null : engine.hits(query, FacetSelection.NONE);
+            List<GeoMatch> expected = bruteForce(universities, origin, filter);
+
+            int n = 1 + random.nextInt(40);
+            assertSameMatches(expected.subList(0, Math.min(n, expected.size())),
+                    engine.nearest(query, FacetSelection.NONE, origin, n), universities, origin);
+
+            double radiusKm = random.nextDouble() * 3_000;
+            List<GeoMatch> inRadius = expected.stream().filter(m -> m.distanceKm() <= radiusKm).toList();
+            assertSameMatches(inRadius, engine.within(query, FacetSelection.NONE, origin, radiusKm, Integer.MAX_VALUE),
+                    universities, origin);
+        }
+    }
+
+    private static List<GeoMatch> bruteForce(List<University> universities, GeoPoint origin, int[] filter) {
+        List<GeoMatch> matches = new ArrayList<>();
+        if (filter == null) {
+            for (int docId = 0; docId < universities.size(); docId++) {
+                addIfLocated(matches, universities, origin, docId);
+            }
+        } else {
+            for (int docId : filter) {
+                addIfLocated(matches, universities, origin, docId);
+            }
+        }
+        matches.sort(Comparator.comparingDouble(GeoMatch::distanceKm).thenComparingInt(GeoMatch::docId));
+        return matches;
+    }
+
+    private static void addIfLocated(List<GeoMatch> matches, List<University> universities, GeoPoint origin,
+                                     int docId) {
+        GeoPoint location = universities.get(docId).location();
+        if (location != null) {
+            matches.add(new GeoMatch(docId, origin.distanceKm(location)));
+        }
+    }
+
+    /**
+     * Checks that {@code actual} has the distances of {@code expected}, and that
+     * each reported distance is the true one, so near-ties may come in either order.
+     */
+    private static void assertSameMatches(List<GeoMatch> expected, List<GeoMatch> actual,
+                                          List<University> universities, GeoPoint origin) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            GeoMatch match = actual.get(i);
+            assertEquals(expected.get(i).distanceKm(), match.distanceKm(), TOLERANCE_KM);
+            assertEquals(origin.distanceKm(universities.get(match.docId()).location()), match.distanceKm(),
+                    TOLERANCE_KM);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.uniapp.search;
+
+import com.uniapp.TestUniversities;
+import com.uniapp.model.University;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexSnapshotTest {
+
+    private static final List<String> QUERIES = List.of("university", "nat inst", "of ber", "xanos", "province 3");
+
+    @TempDir
+    Path dir;
+
+    private final List<University> universities = TestUniversities.generate(2_000, 4);
+    private final SearchEngine engine = new SearchEngine(universities);
+
+    @Test
+    void restoresAnEngineThatSearchesLikeTheOriginal() throws IOException {
+        IndexSnapshot snapshot = new IndexSnapshot(dir.resolve("index.snapshot"));
+        snapshot.save(engine, 42);
+
+        SearchEngine restored = snapshot.restore(42);
+
+        assertEquals(universities, restored.universities());
+        assertEquals(engine.index().termCount(), restored.index().termCount());
+        for (String query : QUERIES) {
+            int[] hits = engine.hits(query, FacetSelection.NONE);
+            assertArrayEquals(hits, restored.hits(query, FacetSelection.NONE), query);
+            assertArrayEquals(engine.rank(query, hits, 10), restored.rank(query, hits, 10), query);
+            assertEquals(engine.fuzzySearch(query, 20), restored.fuzzySearch(query, 20), query);
+        }
+    }
+
+    @Test
+    void ignoresASnapshotOfAnotherVersion() throws IOException {
+        IndexSnapshot snapshot = new IndexSnapshot(dir.resolve("index.snapshot"));
+        assertNull(snapshot.restore(1));
+
+        snapshot.save(engine, 1);
+
+        assertNull(snapshot.restore(2));
+    }
+
+    @Test
+    void rejectsACorruptedBody() throws IOException {
+        IndexSnapshot snapshot = new IndexSnapshot(dir.resolve("index.snapshot"));
+        snapshot.save(engine, 7);
+        corruptBody(snapshot.file());
+
+        IOException e = assertThrows(IOException.class, () -> snapshot.restore(7));
+        assertTrue(e.getMessage().contains("checksum"), e.getMessage());
+    }
+
+    /** Flips a bit in the middle of the snapshot body, leaving the header and its CRC as they were. */
+    static void corruptBody(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        int offset = IndexSnapshot.HEADER_SIZE + (bytes.length - IndexSnapshot.HEADER_SIZE) / 2;
+        bytes[offset] ^= 0x10;
+        Files.write(file, bytes);
+    }
+}
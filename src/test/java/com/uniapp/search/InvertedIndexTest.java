@@ -0,0 +1,55 @@
+package com.uniapp.search;
+
+import com.uniapp.TestUniversities;
+import com.uniapp.model.University;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InvertedIndexTest {
+
+    private static final List<University> GREEK = List.of(
+            new University("University of Athens", "Greece", "GR", "Attica", List.of("uoa.gr"), List.of()),
+            new University("Athens School of Fine Arts", "Greece", "GR", "Attica", List.of("asfa.gr"), List.of()),
+            new University("University of Patras", "Greece", "GR", "Achaea", List.of("upatras.gr"), List.of()));
+
+    @Test
+    void searchMatchesEveryTermAsPrefix() {
+        InvertedIndex index = InvertedIndex.build(GREEK);
+
+        assertArrayEquals(new int[] {0, 1}, index.search("ath"));
+        assertArrayEquals(new int[] {0}, index.search("univ ATH"));
+        assertArrayEquals(new int[] {0, 2}, index.lookup("university"));
+        assertArrayEquals(new int[0], index.search("athens patras"));
+    }
+
+    @Test
+    void indexesCountryProvinceAndDomain() {
+        InvertedIndex index = InvertedIndex.build(GREEK);
+
+        assertEquals(3, index.documentCount());
+        assertArrayEquals(new int[] {0, 1, 2}, index.search("greece"));
+        assertArrayEquals(new int[] {0, 1}, index.search("attica"));
+        assertArrayEquals(new int[] {2}, index.search("upatras"));
+        assertArrayEquals(new int[0], index.search(""));
+    }
+
+    @Test
+    void parallelBuildMatchesSequentialBuild() {
+        List<University> universities = TestUniversities.generate(20_000, 1);
+        InvertedIndex parallel = InvertedIndex.build(universities);
+        InvertedIndex.Builder builder = new InvertedIndex.Builder();
+        universities.forEach(builder::add);
+        InvertedIndex sequential = builder.build();
+
+        assertEquals(sequential.documentCount(), parallel.documentCount());
+        assertEquals(sequential.termCount(), parallel.termCount());
+        for (int termId = 0; termId < sequential.termCount(); termId++) {
+            assertEquals(sequential.term(termId), parallel.term(termId));
+            assertArrayEquals(sequential.postings(termId), parallel.postings(termId), sequential.term(termId));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.uniapp.search;
+
+import com.uniapp.model.University;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class NameResolverTest {
+
+    private final NameResolver resolver = new NameResolver(new SearchEngine(List.of(
+            new University("University of Athens", "Greece", "GR", null, List.of("uoa.gr"), List.of()),
+            new University("University of Patras", "Greece", "GR", null, List.of("upatras.gr"), List.of()),
+            new University("Athens University of Economics and Business", "Greece", "GR", null,
+                    List.of("aueb.gr"), List.of()),
+            new University("Technical University of Munich", "Germany", "DE", null, List.of("tum.de"),
+                    List.of()))));
+
+    @Test
+    void resolvesExactAndMisspelledNames() {
+        Resolution exact = resolver.resolve("University of Patras");
+        assertEquals(1, exact.docId());
+        assertEquals(Resolution.Kind.EXACT, exact.kind());
+
+        Resolution fuzzy = resolver.resolve("Tecnical Universty of Munich");
+        assertEquals(3, fuzzy.docId());
+        assertEquals(Resolution.Kind.FUZZY, fuzzy.kind());
+    }
+
+    @Test
+    void skipsTermsThatWouldLeaveNoCandidates() {
+        // "munich" matches a document, but not together with the rarer "athens" and "economics".
+        Resolution resolution = resolver.resolve("Athens University of Economics Munich");
+
+        assertEquals(2, resolution.docId());
+        assertEquals(Resolution.Kind.PARTIAL, resolution.kind());
+    }
+
+    @Test
+    void reportsNamesWithoutAnyMatch() {
+        assertFalse(resolver.resolve("zzzz qqqq").matched());
+        assertFalse(resolver.resolve("").matched());
+    }
+}
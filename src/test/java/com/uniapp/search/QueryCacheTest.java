@@ -0,0 +1,60 @@
+package com.uniapp.search;
+
+import com.uniapp.TestUniversities;
+import com.uniapp.metrics.CacheOutcome;
+import com.uniapp.metrics.SearchMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryCacheTest {
+
+    private final InvertedIndex index = InvertedIndex.build(TestUniversities.generate(5_000, 4));
+
+    @Test
+    void refinedQueriesMatchUncachedSearch() {
+        QueryCache cache = new QueryCache(index, 64);
+        SearchMetrics metrics = new SearchMetrics();
+        Random random = new Random(5);
+        for (int i = 0; i < 200; i++) {
+            // Type a name one character at a time, as the search field does.
+            String name = index.term(random.nextInt(index.termCount())) + " "
+                    + index.term(random.nextInt(index.termCount()));
+            for (int end = 1; end <= name.length(); end++) {
+                String query = name.substring(0, end);
+                assertArrayEquals(index.search(query), cache.search(Tokenizer.tokenizeQuery(query), metrics), query);
+            }
+        }
+        assertTrue(metrics.count(CacheOutcome.REFINEMENT) > 0);
+    }
+
+    @Test
+    void repeatedAndShortenedQueriesMatchUncachedSearch() {
+        QueryCache cache = new QueryCache(index, 4);
+        for (String query : List.of("univ", "university of", "university", "uni", "university of", "of uni",
+                "of", "university  OF", "")) {
+            assertArrayEquals(index.search(query), cache.search(query), query);
+        }
+        assertTrue(cache.size() <= 4);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntries() {
+        QueryCache cache = new QueryCache(index, 2);
+        cache.search("college");
+        cache.search("school");
+        cache.search("college");
+        cache.search("academy");
+        assertEquals(2, cache.size());
+        SearchMetrics metrics = new SearchMetrics();
+        cache.search(List.of("college"), metrics);
+        cache.search(List.of("school"), metrics);
+        assertEquals(1, metrics.count(CacheOutcome.HIT));
+        assertEquals(1, metrics.count(CacheOutcome.MISS));
+    }
+}
@@ -0,0 +1,82 @@
+package com.uniapp.search;
+
+import com.uniapp.TestUniversities;
+import com.uniapp.model.University;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RankerTest {
+
+    private static final List<University> BERLIN = List.of(
+            new University("Institute of Technology and Applied Arts of Berlin", "Germany", "DE", "Berlin",
+                    List.of("itaab.de"), List.of()),
+            new University("Berlin Institute", "Germany", "DE", null, List.of("bi.de"), List.of()),
+            new University("Technical University", "Germany", "DE", "Berlin", List.of("tu.de"), List.of()),
+            new University("Massachusetts Institute of Technology", "United States", "US", "Massachusetts",
+                    List.of("mit.edu"), List.of()),
+            new University("Mitchell College", "United States", "US", "Connecticut",
+                    List.of("mitchell.edu"), List.of()));
+
+    @Test
+    void ranksShortPrefixNamesAboveLongNamesAboveProvinceMatches() {
+        SearchEngine engine = new SearchEngine(BERLIN);
+        int[] hits = engine.hits("berlin", FacetSelection.NONE);
+
+        assertArrayEquals(new int[] {1, 0, 2}, engine.ranker().top("berlin", hits, 3));
+    }
+
+    @Test
+    void domainLabelOutranksANamePrefix() {
+        SearchEngine engine = new SearchEngine(BERLIN);
+        int[] hits = engine.hits("mit", FacetSelection.NONE);
+
+        assertArrayEquals(new int[] {3, 4}, engine.ranker().top("mit", hits, 2));
+    }
+
+    @Test
+    void exactTermsOutweighPrefixMatches() {
+        SearchEngine engine = new SearchEngine(List.of(
+                new University("College of Arts", "Country", "CC", null, List.of(), List.of()),
+                new University("College of Artisans", "Country", "CC", null, List.of(), List.of())));
+
+        assertEquals(engine.ranker().score("art", 0), engine.ranker().score("art", 1));
+        assertTrue(engine.ranker().score("arts", 0) > engine.ranker().score("arts", 1));
+    }
+
+    @Test
+    void boundedHeapKeepsTheSameTopAsAFullSort() {
+        SearchEngine engine = new SearchEngine(TestUniversities.generate(3_000, 9));
+        Ranker ranker = engine.ranker();
+        for (String query : List.of("university", "of", "nat", "province 2", "cal", "technical inst")) {
+            int[] hits = engine.hits(query, FacetSelection.NONE);
+            Integer[] sorted = Arrays.stream(hits).boxed().toArray(Integer[]::new);
+            Arrays.sort(sorted, Comparator.comparingDouble((Integer docId) -> -ranker.score(query, docId))
+                    .thenComparingInt(docId -> docId));
+            for (int k : new int[] {1, 10, 100, hits.length, hits.length + 5}) {
+                int[] expected = Arrays.stream(sorted).limit(k).mapToInt(Integer::intValue).toArray();
+                assertArrayEquals(expected, ranker.top(query, hits, k), query + " k=" + k);
+            }
+        }
+    }
+
+    @Test
+    void promoteKeepsTheRemainingHitsInDatasetOrder() {
+        SearchEngine engine = new SearchEngine(TestUniversities.generate(3_000, 9));
+        int[] hits = engine.hits("university", FacetSelection.NONE);
+        int[] top = engine.ranker().top("university", hits, 20);
+
+        int[] promoted = engine.rank("university", hits, 20);
+
+        assertEquals(hits.length, promoted.length);
+        assertArrayEquals(top, Arrays.copyOf(promoted, top.length));
+        int[] rest = Arrays.stream(hits).filter(docId -> Arrays.stream(top).noneMatch(t -> t == docId)).toArray();
+        assertArrayEquals(rest, Arrays.copyOfRange(promoted, top.length, promoted.length));
+    }
+}
@@ -0,0 +1,52 @@
+package com.uniapp.search;
+
+import com.uniapp.TestUniversities;
+import com.uniapp.metrics.CacheOutcome;
+import com.uniapp.metrics.SearchMetrics;
+import com.uniapp.metrics.Stage;
+import com.uniapp.model.University;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchDiagnosticsTest {
+
+    private final List<University> universities = TestUniversities.generate(1_000, 6);
+
+    @Test
+    void cacheCountsSurviveAnEngineSwap() {
+        SearchMetrics metrics = new SearchMetrics();
+        QueryRunner runner = new QueryRunner(metrics);
+        SearchEngine engine = new SearchEngine(universities);
+        runner.run(engine, "uni", FacetSelection.NONE);
+        runner.run(engine, "univ", FacetSelection.NONE);
+        runner.run(engine, "univ", FacetSelection.NONE);
+
+        // A patched engine, as published by the updater, starts with an empty query cache.
+        SearchEngine patched = engine.patch(Map.of(0, universities.get(1)), universities.size());
+        runner.run(patched, "univ", FacetSelection.NONE);
+
+        SearchDiagnostics diagnostics = SearchDiagnostics.capture(metrics, patched);
+        assertEquals(new QueryCacheStats(1, 1, 2), diagnostics.cache());
+        assertEquals(4, diagnostics.stages().get(Stage.TOKENIZE).count());
+        assertEquals(4, diagnostics.stages().get(Stage.LOOKUP).count());
+        assertEquals(universities.size(), diagnostics.documents());
+        assertTrue(diagnostics.format().contains("hits 1, refinements 1, misses 2"), diagnostics.format());
+    }
+
+    @Test
+    void resetClearsCacheCountsWithTheHistograms() {
+        SearchMetrics metrics = new SearchMetrics();
+        new QueryRunner(metrics).run(new SearchEngine(universities), "college", FacetSelection.NONE);
+        assertEquals(1, metrics.count(CacheOutcome.MISS));
+
+        metrics.reset();
+
+        assertEquals(0, metrics.count(CacheOutcome.MISS));
+        assertEquals(0, metrics.histogram(Stage.LOOKUP).snapshot().count());
+    }
+}
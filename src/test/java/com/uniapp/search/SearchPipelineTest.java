@@ -0,0 +1,71 @@
+package com.uniapp.search;
+
+import com.uniapp.TestUniversities;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SearchPipelineTest {
+
+    private static final SearchEngine ENGINE = new SearchEngine(TestUniversities.generate(500, 1));
+
+    /** Stands in for the event dispatch thread: results queue up until the test runs them. */
+    private final BlockingQueue<Runnable> ui = new LinkedBlockingQueue<>();
+    private final List<SearchResult> shown = new CopyOnWriteArrayList<>();
+
+    @Test
+    void debouncedKeystrokesRunOnlyTheLastQuery() throws InterruptedException {
+        try (SearchPipeline pipeline = new SearchPipeline(ENGINE, ui::add, shown::add, Duration.ofMillis(200))) {
+            pipeline.submit("u");
+            pipeline.submit("un");
+            pipeline.submit("uni");
+
+            runNextUiTask();
+            assertNull(ui.poll(300, TimeUnit.MILLISECONDS));
+        }
+        assertEquals(1, shown.size());
+        assertEquals("uni", shown.get(0).query());
+    }
+
+    @Test
+    void dropsResultsOfSupersededQueries() throws InterruptedException {
+        try (SearchPipeline pipeline = new SearchPipeline(ENGINE, ui::add, shown::add, Duration.ZERO)) {
+            pipeline.submit("college");
+            Runnable stale = ui.poll(5, TimeUnit.SECONDS);
+            assertNotNull(stale);
+            pipeline.submit("academy");
+            Runnable latest = ui.poll(5, TimeUnit.SECONDS);
+            assertNotNull(latest);
+
+            // The first result reaches the UI after the second query was submitted and must not be shown.
+            stale.run();
+            latest.run();
+        }
+        assertEquals(1, shown.size());
+        assertEquals("academy", shown.get(0).query());
+        assertEquals(ENGINE.search("academy").size(), shown.get(0).universities().size());
+    }
+
+    @Test
+    void ignoresQueriesAfterClose() throws InterruptedException {
+        SearchPipeline pipeline = new SearchPipeline(ENGINE, ui::add, shown::add, Duration.ZERO);
+        pipeline.close();
+        pipeline.submit("college");
+        assertNull(ui.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    private void runNextUiTask() throws InterruptedException {
+        Runnable task = ui.poll(5, TimeUnit.SECONDS);
+        assertNotNull(task, "no result was published");
+        task.run();
+    }
+}
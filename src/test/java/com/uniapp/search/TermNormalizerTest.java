@@ -0,0 +1,100 @@
+package com.uniapp.search;
+
+import com.uniapp.model.University;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TermNormalizerTest {
+
+    @Test
+    void lowerCasesAsciiAndKeepsLowerCaseTermsAsIs() {
+        assertEquals("mit", TermNormalizer.normalize("MIT"));
+        String term = "university";
+        assertSame(term, TermNormalizer.normalize(term));
+    }
+
+    @Test
+    void stripsDiacritics() {
+        assertEquals("universite", TermNormalizer.normalize("Université"));
+        assertEquals("munchen", TermNormalizer.normalize("München"));
+        assertEquals("sao", TermNormalizer.normalize("São"));
+    }
+
+    @Test
+    void expandsLigaturesAndSpecialLetters() {
+        assertEquals("strasse", TermNormalizer.normalize("Straße"));
+        assertEquals("aero", TermNormalizer.normalize("Ærø"));
+        assertEquals("lodz", TermNormalizer.normalize("Łódź"));
+        assertEquals("reykjavik", TermNormalizer.normalize("Reykjavík"));
+        assertEquals("thorshofn", TermNormalizer.normalize("Þórshöfn"));
+    }
+
+    @Test
+    void transliteratesGreek() {
+        assertEquals("panepistimio", TermNormalizer.normalize("Πανεπιστήμιο"));
+        assertEquals("athinon", TermNormalizer.normalize("Αθηνών"));
+        assertEquals("psychologia", TermNormalizer.normalize("ΨΥΧΟΛΟΓΙΑ"));
+        assertEquals("ouranos", TermNormalizer.normalize("Ουρανός"));
+    }
+
+    @Test
+    void spellsGreekUpsilonDigraphsByTheFollowingLetter() {
+        assertEquals("avgi", TermNormalizer.normalize("Αυγή"));
+        assertEquals("evropi", TermNormalizer.normalize("Ευρώπη"));
+        assertEquals("avrio", TermNormalizer.normalize("αύριο"));
+        assertEquals("efkleidis", TermNormalizer.normalize("Ευκλείδης"));
+        assertEquals("aftonomo", TermNormalizer.normalize("ΑΥΤΟΝΟΜΟ"));
+        assertEquals("naftiko", TermNormalizer.normalize("Ναυτικό"));
+        assertEquals("ivra", TermNormalizer.normalize("ηύρα"));
+    }
+
+    @Test
+    void spellsAFinalUpsilonDigraphAsFOnlyInCompleteWords() {
+        assertEquals("kaf", TermNormalizer.normalize("καυ"));
+        assertEquals("eυ", TermNormalizer.normalizePrefix("ευ"));
+        assertArrayEquals(new String[] {"ev", "ef"}, TermNormalizer.spellings(TermNormalizer.normalizePrefix("ευ")));
+        assertArrayEquals(new String[] {"ou"}, TermNormalizer.spellings(TermNormalizer.normalizePrefix("ου")));
+        assertEquals("avg", TermNormalizer.normalizePrefix("Αυγ"));
+    }
+
+    @Test
+    void queryPrefixEndingInAnUpsilonDigraphMatchesBothSpellings() {
+        SearchEngine engine = new SearchEngine(List.of(
+                new University("Αυγή College", "Greece", "GR", null, List.of(), List.of()),
+                new University("Αυτόνομο Institute", "Greece", "GR", null, List.of(), List.of()),
+                new University("Ευρωπαϊκό University", "Greece", "GR", null, List.of(), List.of()),
+                new University("Afon Academy", "Greece", "GR", null, List.of(), List.of())));
+
+        assertEquals(List.of("avgi", "college"), Tokenizer.tokenize("Αυγή College"));
+        assertEquals(List.of("aυ"), Tokenizer.tokenizeQuery("Αυ"));
+        assertEquals(List.of("af"), Tokenizer.tokenizeQuery("Αυ "));
+        assertArrayEquals(new int[] {0, 1, 3}, engine.hits("Αυ", FacetSelection.NONE));
+        assertArrayEquals(new int[] {0}, engine.hits("Αυγ", FacetSelection.NONE));
+        assertArrayEquals(new int[] {1}, engine.hits("Αυτ", FacetSelection.NONE));
+        assertArrayEquals(new int[] {2}, engine.hits("ευ", FacetSelection.NONE));
+        assertArrayEquals(new int[] {0}, engine.hits("college αυ", FacetSelection.NONE));
+        assertArrayEquals(new int[] {0, 1, 3}, engine.queryCache().search("Αυ"));
+        assertEquals(3, engine.fuzzySearch("Αυ", 10).size());
+        assertEquals(3, engine.rank("Αυ", engine.hits("Αυ", FacetSelection.NONE), 3).length);
+    }
+
+    @Test
+    void diaeresisSeparatesGreekVowels() {
+        assertEquals("proypothesi", TermNormalizer.normalize("προϋπόθεση"));
+        assertEquals("aypnia", TermNormalizer.normalize("αϋπνία"));
+    }
+
+    @Test
+    void transliteratesCyrillic() {
+        assertEquals("moskovskiy", TermNormalizer.normalize("Московский"));
+        assertEquals("universitet", TermNormalizer.normalize("университет"));
+        assertEquals("kiyivskiy", TermNormalizer.normalize("Київський"));
+        assertEquals("beograd", TermNormalizer.normalize("Београд"));
+        assertEquals("obem", TermNormalizer.normalize("объём"));
+    }
+}
@@ -0,0 +1,92 @@
+package com.uniapp.ui;
+
+import com.uniapp.TestUniversities;
+import com.uniapp.model.University;
+import com.uniapp.model.UniversityStore;
+import com.uniapp.search.SearchResult;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ResultListModelTest {
+
+    private final List<University> universities = TestUniversities.generate(500, 7);
+    private final UniversityStore store = UniversityStore.of(universities);
+
+    @Test
+    void rowsFollowTheResultsDocumentIds() {
+        ResultListModel model = new ResultListModel();
+        int[] docIds = {42, 7, 499, 0};
+        model.show(result(docIds));
+
+        assertEquals(docIds.length, model.getSize());
+        UniversityStore.Row first = model.getElementAt(0);
+        for (int i = 0; i < docIds.length; i++) {
+            University university = universities.get(docIds[i]);
+            UniversityStore.Row row = model.getElementAt(i);
+            assertSame(first, row);
+            assertEquals(university.name(), row.name());
+            assertEquals(university.country(), row.country());
+            assertEquals(university, model.universityAt(i));
+        }
+    }
+
+    @Test
+    void firesOneRemovalAndOneAdditionPerResult() {
+        ResultListModel model = new ResultListModel();
+        List<String> events = new ArrayList<>();
+        model.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                events.add("added " + e.getIndex0() + "-" + e.getIndex1());
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+                events.add("removed " + e.getIndex0() + "-" + e.getIndex1());
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+                events.add("changed");
+            }
+        });
+
+        model.show(result(new int[] {1, 2, 3}));
+        model.show(result(new int[] {4, 5}));
+        model.show(result(new int[0]));
+
+        assertEquals(List.of("added 0-2", "removed 0-2", "added 0-1", "removed 0-1"), events);
+    }
+
+    @Test
+    void rendererShowsNameProvinceAndCountry() {
+        ResultListModel model = new ResultListModel();
+        model.show(result(new int[] {0, 1, 2, 3, 4, 5, 6, 7}));
+        JList<UniversityStore.Row> list = new JList<>(model);
+        UniversityCellRenderer renderer = new UniversityCellRenderer();
+
+        for (int i = 0; i < model.getSize(); i++) {
+            University university = model.universityAt(i);
+            String expected = university.name() + " \u2014 "
+                    + (university.stateProvince() == null ? "" : university.stateProvince() + ", ")
+                    + university.country();
+            JLabel label = (JLabel) renderer.getListCellRendererComponent(list, model.getElementAt(i), i,
+                    false, false);
+            assertEquals(expected, label.getText());
+        }
+    }
+
+    private SearchResult result(int[] docIds) {
+        return new SearchResult("q", store, docIds, false, Map.of());
+    }
+}
@@ -0,0 +1,91 @@
+package com.uniapp.workspace;
+
+import com.uniapp.TestUniversities;
+import com.uniapp.model.University;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkspaceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void reopenRestoresBothListsInOrder() throws IOException {
+        List<University> universities = TestUniversities.generate(30, 1);
+        Path file = dir.resolve("workspace.bin");
+        try (Workspace workspace = Workspace.open(file)) {
+            assertEquals(20, workspace.addAll(Shortlist.FAVOURITES, universities.subList(0, 20)));
+            assertFalse(workspace.add(Shortlist.FAVOURITES, universities.get(3)));
+            assertTrue(workspace.remove(Shortlist.FAVOURITES, universities.get(5)));
+            assertFalse(workspace.remove(Shortlist.FAVOURITES, universities.get(25)));
+            assertTrue(workspace.add(Shortlist.COMPARISON, universities.get(25)));
+        }
+
+        try (Workspace workspace = Workspace.open(file)) {
+            assertEquals(19, workspace.size(Shortlist.FAVOURITES));
+            assertFalse(workspace.contains(Shortlist.FAVOURITES, universities.get(5)));
+            assertTrue(workspace.contains(Shortlist.COMPARISON, universities.get(25)));
+            List<WorkspaceEntry> page = workspace.page(Shortlist.FAVOURITES, 4, 3);
+            assertEquals(3, page.size());
+            assertTrue(page.get(0).matches(universities.get(4)));
+            assertTrue(page.get(1).matches(universities.get(6)));
+            assertTrue(page.get(2).matches(universities.get(7)));
+        }
+    }
+
+    @Test
+    void reopenCompactsAJournalOfMostlyStaleEntries() throws IOException {
+        List<University> universities = TestUniversities.generate(200, 2);
+        Path file = dir.resolve("workspace.bin");
+        try (Workspace workspace = Workspace.open(file)) {
+            for (int round = 0; round < 5; round++) {
+                workspace.addAll(Shortlist.FAVOURITES, universities);
+                universities.forEach(university -> workspace.remove(Shortlist.FAVOURITES, university));
+            }
+            workspace.addAll(Shortlist.COMPARISON, universities.subList(0, 10));
+        }
+        long before = Files.size(file);
+
+        try (Workspace workspace = Workspace.open(file)) {
+            assertTrue(Files.size(file) < before / 10, Files.size(file) + " of " + before);
+            assertEquals(0, workspace.size(Shortlist.FAVOURITES));
+            assertEquals(10, workspace.size(Shortlist.COMPARISON));
+            workspace.add(Shortlist.FAVOURITES, universities.get(50));
+        }
+
+        try (Workspace workspace = Workspace.open(file)) {
+            List<WorkspaceEntry> favourites = workspace.page(Shortlist.FAVOURITES, 0, 10);
+            assertEquals(1, favourites.size());
+            assertTrue(favourites.get(0).matches(universities.get(50)));
+            List<WorkspaceEntry> comparison = workspace.page(Shortlist.COMPARISON, 0, 20);
+            for (int i = 0; i < 10; i++) {
+                assertTrue(comparison.get(i).matches(universities.get(i)));
+            }
+        }
+    }
+
+    @Test
+    void rejectsChangesAfterClose() throws IOException {
+        Workspace workspace = Workspace.open(dir.resolve("workspace.bin"));
+        workspace.close();
+        University university = TestUniversities.generate(1, 3).get(0);
+        assertThrows(IllegalStateException.class, () -> workspace.add(Shortlist.FAVOURITES, university));
+    }
+
+    @Test
+    void rejectsFilesThatAreNotWorkspaces() throws IOException {
+        Path file = Files.writeString(dir.resolve("workspace.bin"), "not a workspace journal, just some text");
+        assertThrows(IOException.class, () -> Workspace.open(file));
+    }
+}